@@ -0,0 +1,86 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.CurrentAccount;
+
+/**
+ * Throughput of concurrent deposit/withdraw pairs against shared accounts
+ * With accountCount = 1 every thread contends on the same account lock;
+ * larger values show how throughput scales when threads mostly touch different accounts
+ *
+ * Run all thread counts (1, 4, 16, 64) with:
+ *   java -cp target/benchmarks.jar com.olim.bankaccountmanagementsystem.benchmark.AccountContentionBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class AccountContentionBenchmark {
+    private static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+
+    @Param({"1", "64", "4096"})
+    public int accountCount;
+
+    private Account[] accounts;
+
+    /**
+     * Recreate the accounts every iteration so transaction histories do not pile up
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Person owner = new Person("benchmark-owner", "Benchmark Owner", "bench@example.com");
+        accounts = new Account[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accounts[i] = new CurrentAccount("CUR-" + i, 100_000_000L, owner, 0L);
+        }
+    }
+
+    @Benchmark
+    public boolean depositThenWithdraw() {
+        Account account = accounts[ThreadLocalRandom.current().nextInt(accounts.length)];
+        account.deposit(1_000L);
+        return account.withdraw(1_000L);
+    }
+
+    /**
+     * Run the benchmark once per thread count and write one JSON result file per run
+     *
+     * @param args Command line arguments (unused)
+     * @throws RunnerException if JMH fails to run
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREAD_COUNTS) {
+            Options options = new OptionsBuilder()
+                    .include(AccountContentionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("account-contention-" + threads + "t.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
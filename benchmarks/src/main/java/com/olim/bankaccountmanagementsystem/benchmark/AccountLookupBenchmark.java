@@ -0,0 +1,108 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.services.BankingSystem;
+
+/**
+ * Throughput of account lookups by number and by owner as the bank grows
+ * Accounts are created through the public BankingSystem API, round robin over
+ * the three account types, with four accounts per owner. They are opened
+ * with no money, so no initial transactions take up memory at 10^7 accounts.
+ * The contended variants run one thread per available processor.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx12g"})
+@State(Scope.Benchmark)
+public class AccountLookupBenchmark {
+    private static final int ACCOUNTS_PER_OWNER = 4;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int accountCount;
+
+    private BankingSystem bankingSystem;
+    private String[] accountNumbers;
+    private Person[] owners;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bankingSystem = new BankingSystem();
+        accountNumbers = new String[accountCount];
+        owners = new Person[(accountCount + ACCOUNTS_PER_OWNER - 1) / ACCOUNTS_PER_OWNER];
+
+        for (int i = 0; i < accountCount; i++) {
+            int ownerIndex = i / ACCOUNTS_PER_OWNER;
+            if (owners[ownerIndex] == null) {
+                owners[ownerIndex] = new Person("owner-" + ownerIndex, "Owner " + ownerIndex, "owner@example.com");
+            }
+            Person owner = owners[ownerIndex];
+
+            Account account;
+            switch (i % 3) {
+                case 0:
+                    account = bankingSystem.createSavingsAccount(owner, 0L, 0L, 0.05);
+                    break;
+                case 1:
+                    account = bankingSystem.createCurrentAccount(owner, 0L, 50_000L);
+                    break;
+                default:
+                    account = bankingSystem.createFixedDepositAccount(owner, 0L, 12, 0.07);
+                    break;
+            }
+            accountNumbers[i] = account.getAccountNumber();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Account findAccountByNumber() {
+        return bankingSystem.findAccountByNumber(randomAccountNumber());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Account> getAccountsByOwner() {
+        return bankingSystem.getAccountsByOwner(randomOwner());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Account findAccountByNumberContended() {
+        return bankingSystem.findAccountByNumber(randomAccountNumber());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<Account> getAccountsByOwnerContended() {
+        return bankingSystem.getAccountsByOwner(randomOwner());
+    }
+
+    private String randomAccountNumber() {
+        return accountNumbers[ThreadLocalRandom.current().nextInt(accountNumbers.length)];
+    }
+
+    private Person randomOwner() {
+        return owners[ThreadLocalRandom.current().nextInt(owners.length)];
+    }
+}
@@ -0,0 +1,127 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.AccountType;
+import com.olim.bankaccountmanagementsystem.model.account.CurrentAccount;
+import com.olim.bankaccountmanagementsystem.model.account.FixedDepositAccount;
+import com.olim.bankaccountmanagementsystem.model.account.SavingsAccount;
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+import com.olim.bankaccountmanagementsystem.util.CachedClock;
+
+/**
+ * Throughput of single deposits and withdrawals for each account type
+ * The contended variants run 8 threads against the same account.
+ * Fixed deposit accounts reject both operations before maturity, so for them
+ * these benchmarks measure the rejection path.
+ * The clock parameter compares reading the system clock per transaction with
+ * a cached clock and a fixed clock, which also makes runs deterministic.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class AccountOperationsBenchmark {
+    private static final long OPENING_BALANCE = 1_000_000_000_000L; // Enough that withdrawals never run out
+
+    @Param({"SAVINGS", "CURRENT", "FIXED_DEPOSIT"})
+    public AccountType accountType;
+
+    @Param({"SYSTEM", "CACHED", "FIXED"})
+    public String clock;
+
+    private Account account;
+    private Clock originalClock;
+    private CachedClock cachedClock;
+
+    @Setup(Level.Trial)
+    public void installClock() {
+        originalClock = BankClock.getClock();
+        switch (clock) {
+            case "CACHED":
+                cachedClock = new CachedClock(Clock.systemUTC(), Duration.ofMillis(1));
+                BankClock.setClock(cachedClock);
+                break;
+            case "FIXED":
+                BankClock.setClock(Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC));
+                break;
+            default:
+                BankClock.setClock(Clock.systemUTC());
+                break;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreClock() {
+        BankClock.setClock(originalClock);
+        if (cachedClock != null) {
+            cachedClock.close();
+        }
+    }
+
+    /**
+     * Recreate the account every iteration so its transaction history does not pile up
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Person owner = new Person("benchmark-owner", "Benchmark Owner", "bench@example.com");
+        switch (accountType) {
+            case SAVINGS:
+                account = new SavingsAccount("SAV-000001", OPENING_BALANCE, owner, 0L, 0.05);
+                break;
+            case CURRENT:
+                account = new CurrentAccount("CUR-000001", OPENING_BALANCE, owner, 0L);
+                break;
+            case FIXED_DEPOSIT:
+                account = new FixedDepositAccount("FIX-000001", OPENING_BALANCE, owner, 12, 0.07);
+                break;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean deposit() {
+        return account.deposit(1_000L);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean withdraw() {
+        return account.withdraw(1L);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean depositContended() {
+        return account.deposit(1_000L);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean withdrawContended() {
+        return account.withdraw(1L);
+    }
+}
@@ -0,0 +1,89 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.CurrentAccount;
+import com.olim.bankaccountmanagementsystem.services.AccountRegistry;
+import com.olim.bankaccountmanagementsystem.util.AccountNumberGenerator;
+
+/**
+ * How registering and listing accounts scale with the number of registry shards
+ * Registrations run on one thread per available processor into a fresh registry
+ * every iteration. Listing copies a prebuilt registry of listSize accounts,
+ * which fans out to the shards' own threads once it is large enough.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class AccountShardingBenchmark {
+    @Param({"1", "4", "16"})
+    public int shardCount;
+
+    @Param({"1000000"})
+    public int listSize;
+
+    private final AccountNumberGenerator accountNumbers = new AccountNumberGenerator();
+    private final Person owner = new Person("benchmark-owner", "Benchmark Owner", "bench@example.com");
+    private AccountRegistry registrations;
+    private AccountRegistry listed;
+
+    @Setup(Level.Trial)
+    public void setUpListed() {
+        listed = new AccountRegistry(shardCount);
+        for (int i = 0; i < listSize; i++) {
+            listed.register(new CurrentAccount(accountNumbers.next("CUR"), 0L, owner, 0L));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpRegistrations() {
+        registrations = new AccountRegistry(shardCount);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownRegistrations() {
+        registrations.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownListed() {
+        listed.close();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void register() {
+        // Each registration has its own owner, as most new customers do
+        Person newOwner = new Person(accountNumbers.next("OWN"), "Owner", "owner@example.com");
+        registrations.register(new CurrentAccount(accountNumbers.next("CUR"), 0L, newOwner, 0L));
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Account> getAll() {
+        return listed.getAll();
+    }
+}
@@ -0,0 +1,96 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.services.BankingSystem;
+import com.olim.bankaccountmanagementsystem.services.OperationBatch;
+
+/**
+ * Cost of applying the same deposits one call at a time versus as one batch
+ * The bank is journaled to a temporary directory, so the one-at-a-time variant
+ * waits for the journal on every deposit while the batch waits once.
+ * Deposits are spread round-robin over accountCount accounts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+    @Param({"1000", "10000"})
+    public int operationCount;
+
+    @Param({"10", "1000"})
+    public int accountCount;
+
+    private Path dataDirectory;
+    private BankingSystem bankingSystem;
+    private String[] accountNumbers;
+    private OperationBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("batch-benchmark");
+        bankingSystem = new BankingSystem(dataDirectory);
+        accountNumbers = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            Person owner = new Person("owner-" + i, "Owner " + i, "owner@example.com");
+            accountNumbers[i] = bankingSystem.createCurrentAccount(owner, 0L, 0L).getAccountNumber();
+        }
+
+        batch = new OperationBatch(operationCount);
+        for (int i = 0; i < operationCount; i++) {
+            batch.deposit(accountNumbers[i % accountCount], 1L);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        bankingSystem.close();
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int oneAtATime() {
+        int applied = 0;
+        for (int i = 0; i < operationCount; i++) {
+            if (bankingSystem.findAccountByNumber(accountNumbers[i % accountCount]).deposit(1L)) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean[] batched() {
+        return bankingSystem.submit(batch);
+    }
+}
@@ -0,0 +1,127 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.SavingsAccount;
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.persistence.RecordCodec;
+
+/**
+ * Time to encode and decode accounts and transactions with the binary record codec,
+ * against the same records written as JSON text
+ * The encoded sizes of both formats are printed once at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+    private Account account;
+    private Transaction transaction;
+    private ByteBuffer buffer;
+    private ByteBuffer encodedAccount;
+    private ByteBuffer encodedTransaction;
+    private final StringBuilder json = new StringBuilder(256);
+
+    @Setup
+    public void setUp() {
+        Person owner = new Person("P-000042", "Benchmark Owner", "bench@example.com");
+        account = new SavingsAccount("SAV-000042", 1_234_567L, owner, 10_000L, 0.035);
+        transaction = new Transaction(0x1234_5678_9ABC_DEFL, 25_000L, 1_700_000_000_000L,
+                TransactionType.DEPOSIT, "Deposit", 0L);
+        buffer = ByteBuffer.allocateDirect(4096);
+
+        encodedAccount = ByteBuffer.allocateDirect(256);
+        RecordCodec.encodeAccount(encodedAccount, account);
+        encodedAccount.flip();
+        encodedTransaction = ByteBuffer.allocateDirect(256);
+        RecordCodec.encodeTransaction(encodedTransaction, transaction);
+        encodedTransaction.flip();
+
+        System.out.printf("%nAccount: %d bytes binary, %d bytes JSON%n", encodedAccount.remaining(),
+                accountJson().getBytes(StandardCharsets.UTF_8).length);
+        System.out.printf("Transaction: %d bytes binary, %d bytes JSON%n", encodedTransaction.remaining(),
+                transactionJson().getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Benchmark
+    public int encodeTransaction() {
+        buffer.clear();
+        RecordCodec.encodeTransaction(buffer, transaction);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public int encodeTransactionJson() {
+        return transactionJson().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public Transaction decodeTransaction() {
+        return RecordCodec.decodeTransaction(encodedTransaction.duplicate());
+    }
+
+    @Benchmark
+    public int encodeAccount() {
+        buffer.clear();
+        RecordCodec.encodeAccount(buffer, account);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public int encodeAccountJson() {
+        return accountJson().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public Account decodeAccount() {
+        return RecordCodec.decodeAccount(encodedAccount.duplicate());
+    }
+
+    private String transactionJson() {
+        json.setLength(0);
+        json.append("{\"id\":").append(transaction.getId())
+                .append(",\"amount\":").append(transaction.getAmount())
+                .append(",\"timestamp\":\"").append(transaction.getDate())
+                .append("\",\"type\":\"").append(transaction.getType().name())
+                .append("\",\"description\":\"").append(transaction.getDescription())
+                .append("\",\"linkedTransactionId\":").append(transaction.getLinkedTransactionId())
+                .append('}');
+        return json.toString();
+    }
+
+    private String accountJson() {
+        SavingsAccount savings = (SavingsAccount) account;
+        Person owner = account.getOwner();
+        json.setLength(0);
+        json.append("{\"type\":\"").append(account.getAccountType().name())
+                .append("\",\"accountNumber\":\"").append(account.getAccountNumber())
+                .append("\",\"owner\":{\"id\":\"").append(owner.getId())
+                .append("\",\"name\":\"").append(owner.getName())
+                .append("\",\"contactInfo\":\"").append(owner.getContactInfo())
+                .append("\"},\"dateCreated\":\"").append(account.getDateCreated())
+                .append("\",\"balance\":").append(account.getBalance())
+                .append(",\"minBalance\":").append(savings.getMinBalance())
+                .append(",\"interestRate\":").append(savings.getInterestRate())
+                .append('}');
+        return json.toString();
+    }
+}
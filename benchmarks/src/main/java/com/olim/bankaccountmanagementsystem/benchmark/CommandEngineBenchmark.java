@@ -0,0 +1,79 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.services.BankingSystem;
+import com.olim.bankaccountmanagementsystem.services.CommandEngine;
+
+/**
+ * Throughput of deposits into one account through the command engine versus direct calls
+ * Publishing returns before the deposit is applied, but a full ring makes publishers
+ * wait for the writer, so over an iteration this measures what the writer sustains.
+ * The direct variants have every thread take the account lock itself.
+ * The bank is recreated every iteration so the account's history does not pile up.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class CommandEngineBenchmark {
+    private BankingSystem bankingSystem;
+    private CommandEngine engine;
+    private Account account;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bankingSystem = new BankingSystem();
+        engine = bankingSystem.commands();
+        account = bankingSystem.createCurrentAccount(
+                new Person("benchmark-owner", "Benchmark Owner", "bench@example.com"), 0L, 0L);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        // Waits for every published deposit to be applied
+        bankingSystem.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void engineDeposit() {
+        engine.deposit(account, 1L, CommandEngine.ResultHandler.NONE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void engineDepositContended() {
+        engine.deposit(account, 1L, CommandEngine.ResultHandler.NONE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean directDeposit() {
+        return account.deposit(1L);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean directDepositContended() {
+        return account.deposit(1L);
+    }
+}
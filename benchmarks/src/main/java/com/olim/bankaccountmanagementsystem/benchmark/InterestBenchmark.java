@@ -0,0 +1,67 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.services.BankingSystem;
+
+/**
+ * Time to apply interest to every savings account in the bank
+ * Half of the accounts are savings accounts and half are current accounts,
+ * so the run also pays for skipping accounts that earn no interest.
+ *
+ * Every run posts one transaction per savings account, so the bank is rebuilt
+ * each iteration and an iteration is a fixed batch of runs rather than a time slice.
+ * The contended variant runs four interest runs at once over the same accounts.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = 10)
+@Measurement(iterations = 10, batchSize = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class InterestBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int accountCount;
+
+    private BankingSystem bankingSystem;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bankingSystem = new BankingSystem();
+        for (int i = 0; i < accountCount; i++) {
+            Person owner = new Person("owner-" + i, "Owner " + i, "owner@example.com");
+            if (i % 2 == 0) {
+                bankingSystem.createSavingsAccount(owner, 1_000_000L, 10_000L, 0.05);
+            } else {
+                bankingSystem.createCurrentAccount(owner, 1_000_000L, 50_000L);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void applyInterestToSavingsAccounts() {
+        bankingSystem.applyInterestToSavingsAccounts();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void applyInterestToSavingsAccountsContended() {
+        bankingSystem.applyInterestToSavingsAccounts();
+    }
+}
@@ -0,0 +1,111 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.persistence.MappedAccount;
+import com.olim.bankaccountmanagementsystem.persistence.MappedAccountStore;
+
+/**
+ * Throughput of operations on random accounts of the off-heap account store
+ * The heap is capped far below the size of the store to show it holds the
+ * accounts outside of it; results depend on how much of the mapped files fits
+ * into the page cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx256m"})
+@State(Scope.Benchmark)
+public class MappedAccountStoreBenchmark {
+    @Param({"1000000", "10000000"})
+    public int accountCount;
+
+    private Path dataDirectory;
+    private MappedAccountStore store;
+    private String[] sampleNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("mapped-store-benchmark");
+        store = MappedAccountStore.open(dataDirectory);
+        for (int i = 0; i < accountCount; i++) {
+            store.openCurrentAccount(i, 100_000_000L, 0L);
+        }
+        sampleNumbers = new String[1024];
+        for (int i = 0; i < sampleNumbers.length; i++) {
+            sampleNumbers[i] = store.account(ThreadLocalRandom.current().nextInt(accountCount)).getAccountNumber();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        store = null;
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean deposit() {
+        return randomAccount().deposit(1L);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean transfer() {
+        return randomTransfer();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean transferContended() {
+        return randomTransfer();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long findAndReadBalance() {
+        String number = sampleNumbers[ThreadLocalRandom.current().nextInt(sampleNumbers.length)];
+        return store.findByNumber(number).getBalance();
+    }
+
+    private MappedAccount randomAccount() {
+        return store.account(ThreadLocalRandom.current().nextInt(accountCount));
+    }
+
+    private boolean randomTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountCount);
+        int to = random.nextInt(accountCount - 1);
+        if (to >= from) {
+            to++; // Never the same account
+        }
+        return store.account(from).transferTo(store.account(to), 1L);
+    }
+}
@@ -0,0 +1,95 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.CurrentAccount;
+import com.olim.bankaccountmanagementsystem.services.BankTotals;
+import com.olim.bankaccountmanagementsystem.services.BankingSystem;
+
+/**
+ * Cost of bank-wide totals over an in-memory bank of accountCount accounts,
+ * a third of each type with every fifth current account overdrawn
+ * Compares reading the running totals, recomputing them with parallel reductions,
+ * and the old way of streaming a copy of all accounts with a type check per account.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+@Threads(1)
+public class ReportingBenchmark {
+    @Param({"100000", "1000000"})
+    public int accountCount;
+
+    private BankingSystem bankingSystem;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bankingSystem = new BankingSystem();
+        for (int i = 0; i < accountCount; i++) {
+            // One owner per account, as an owner's account list is copied on every registration
+            Person owner = new Person("owner-" + i, "Owner " + i, "owner@example.com");
+            switch (i % 3) {
+                case 0:
+                    bankingSystem.createSavingsAccount(owner, 10_000L, 0L, 0.05);
+                    break;
+                case 1:
+                    CurrentAccount current = bankingSystem.createCurrentAccount(owner, 1_000L, 5_000L);
+                    if (i % 5 == 1) {
+                        current.withdraw(3_000L);
+                    }
+                    break;
+                default:
+                    bankingSystem.createFixedDepositAccount(owner, 50_000L, 1 + i % 36, 0.04);
+                    break;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        bankingSystem.close();
+    }
+
+    @Benchmark
+    public BankTotals liveTotals() {
+        return bankingSystem.reports().getLiveTotals();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BankTotals recompute() {
+        return bankingSystem.reports().recompute();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long overdraftExposureByStream() {
+        return bankingSystem.getAllAccounts().stream()
+                .filter(account -> account instanceof CurrentAccount)
+                .mapToLong(Account::getBalance)
+                .filter(balance -> balance < 0)
+                .map(balance -> -balance)
+                .sum();
+    }
+}
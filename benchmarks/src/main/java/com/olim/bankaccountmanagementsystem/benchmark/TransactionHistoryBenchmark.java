@@ -0,0 +1,176 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionHistory;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+
+/**
+ * Cost of appending to and reading from a transaction history
+ * Traversals run over a prebuilt history of historySize transactions, one per second.
+ * Range queries select a random window of PAGE_SIZE seconds, either by binary
+ * search or by checking the time of every transaction.
+ * The readWhileAppending group has one thread appending while three read pages,
+ * which is how the history is used by a busy account shown in the UI.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class TransactionHistoryBenchmark {
+    private static final int PAGE_SIZE = 50;
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    @Param({"1000", "100000", "1000000"})
+    public int historySize;
+
+    private TransactionHistory history;
+
+    // The same transaction is appended repeatedly so the benchmarks measure the history, not ID generation
+    private final Transaction transaction = new Transaction(1L, 1_000L, TransactionType.DEPOSIT, "Benchmark");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        history = new TransactionHistory();
+        for (int i = 0; i < historySize; i++) {
+            history.addTransaction(new Transaction(i + 1, i, START_MILLIS + i * 1000L, TransactionType.DEPOSIT,
+                    "Deposit", 0L));
+        }
+    }
+
+    /**
+     * A fresh history per thread and iteration, so appends never contend and memory stays bounded
+     */
+    @State(Scope.Thread)
+    public static class AppendTarget {
+        TransactionHistory history;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            history = new TransactionHistory();
+        }
+    }
+
+    /**
+     * A fresh history shared by the threads of one group
+     */
+    @State(Scope.Group)
+    public static class SharedTarget {
+        TransactionHistory history;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            history = new TransactionHistory();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void append(AppendTarget target) {
+        target.history.addTransaction(transaction);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long traverseOldestFirst() {
+        long total = 0;
+        for (Transaction t : history) {
+            total += t.getAmount();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long traverseNewestFirst() {
+        long total = 0;
+        for (Transaction t : history.newestFirst()) {
+            total += t.getAmount();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Transaction> getAllTransactions() {
+        return history.getAllTransactions();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public List<Transaction> getRandomPage() {
+        return history.getPage(ThreadLocalRandom.current().nextInt(historySize), PAGE_SIZE);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public List<Transaction> getRandomPageContended() {
+        return history.getPage(ThreadLocalRandom.current().nextInt(historySize), PAGE_SIZE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long rangeQuery() {
+        long from = START_MILLIS + ThreadLocalRandom.current().nextInt(historySize) * 1000L;
+        long total = 0;
+        for (Transaction t : history.between(from, from + PAGE_SIZE * 1000L)) {
+            total += t.getAmount();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long rangeByScan() {
+        long from = START_MILLIS + ThreadLocalRandom.current().nextInt(historySize) * 1000L;
+        long to = from + PAGE_SIZE * 1000L;
+        long total = 0;
+        for (Transaction t : history) {
+            if (t.getTimestamp() >= from && t.getTimestamp() < to) {
+                total += t.getAmount();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    @Group("readWhileAppending")
+    @GroupThreads(1)
+    public void appender(SharedTarget target) {
+        target.history.addTransaction(transaction);
+    }
+
+    @Benchmark
+    @Group("readWhileAppending")
+    @GroupThreads(3)
+    public List<Transaction> pageReader(SharedTarget target) {
+        return target.history.getPage(0, PAGE_SIZE);
+    }
+}
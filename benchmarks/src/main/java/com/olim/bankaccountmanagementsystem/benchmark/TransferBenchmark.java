@@ -0,0 +1,74 @@
+package com.olim.bankaccountmanagementsystem.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.CurrentAccount;
+
+/**
+ * Throughput of transfers between random pairs of accounts
+ * With accountCount = 2 every transfer locks the same two accounts, in both
+ * directions; larger values show how transfers scale when pairs overlap less.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+    @Param({"2", "16", "1024"})
+    public int accountCount;
+
+    private Account[] accounts;
+
+    /**
+     * Recreate the accounts every iteration so transaction histories do not pile up
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Person owner = new Person("benchmark-owner", "Benchmark Owner", "bench@example.com");
+        accounts = new Account[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accounts[i] = new CurrentAccount(String.format("CUR-%06d", i), 100_000_000L, owner, 0L);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean transfer() {
+        return randomTransfer();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean transferContended() {
+        return randomTransfer();
+    }
+
+    private boolean randomTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts.length);
+        int to = random.nextInt(accounts.length - 1);
+        if (to >= from) {
+            to++; // Never the same account
+        }
+        return accounts[from].transferTo(accounts[to], 1L);
+    }
+}
@@ -1,5 +1,8 @@
 package com.olim.bankaccountmanagementsystem;
 
+import com.olim.bankaccountmanagementsystem.metrics.BankMetrics;
+import com.olim.bankaccountmanagementsystem.services.BankingSystem;
+
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -9,11 +12,79 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 /**
  * Main application class for the Bank Account Management System
  */
 public class BankApplication extends Application {
+    // System property that overrides where the journal is stored
+    private static final String DATA_DIRECTORY_PROPERTY = "bank.data.dir";
+
+    // System property with the time between interest runs (ISO-8601, e.g. P30D); unset means no scheduled runs
+    private static final String INTEREST_INTERVAL_PROPERTY = "bank.interest.interval";
+
+    // How often a snapshot is written so that restarts only replay a short journal tail
+    private static final Duration SNAPSHOT_INTERVAL = Duration.ofMinutes(10);
+
+    // Banking system shared by all controllers for the lifetime of the application
+    private static BankingSystem bankingSystem;
+
+    /**
+     * Open the banking system before any screen is shown
+     * All accounts are restored from the latest snapshot and the journal,
+     * and the operation metrics are published over JMX
+     *
+     * @throws IOException if the snapshot or journal cannot be read
+     */
+    @Override
+    public void init() throws IOException {
+        BankMetrics.registerMBean();
+        bankingSystem = new BankingSystem(getDataDirectory());
+        bankingSystem.scheduleSnapshots(SNAPSHOT_INTERVAL);
+
+        String interestInterval = System.getProperty(INTEREST_INTERVAL_PROPERTY);
+        if (interestInterval != null && !interestInterval.isBlank()) {
+            Duration interval = Duration.parse(interestInterval);
+            bankingSystem.scheduleInterestPosting(interval, interval);
+        }
+    }
+
+    /**
+     * Flush and close the journal when the application exits
+     *
+     * @throws IOException if the final flush fails
+     */
+    @Override
+    public void stop() throws IOException {
+        if (bankingSystem != null) {
+            bankingSystem.close();
+        }
+    }
+
+    /**
+     * Get the banking system shared by all controllers
+     *
+     * @return The banking system
+     */
+    public static BankingSystem getBankingSystem() {
+        return bankingSystem;
+    }
+
+    /**
+     * Get the directory where application data is stored
+     *
+     * @return The data directory
+     */
+    private static Path getDataDirectory() {
+        String configured = System.getProperty(DATA_DIRECTORY_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".bank-account-management");
+    }
 
     @Override
     public void start(Stage primaryStage) {
@@ -5,9 +5,13 @@ import com.olim.bankaccountmanagementsystem.model.account.CurrentAccount;
 import com.olim.bankaccountmanagementsystem.model.account.FixedDepositAccount;
 import com.olim.bankaccountmanagementsystem.model.account.SavingsAccount;
 import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionHistory;
 import com.olim.bankaccountmanagementsystem.services.BankingSystem;
+import com.olim.bankaccountmanagementsystem.util.Money;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -18,31 +22,51 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Controller for the account operations view
  * Handles deposits, withdrawals, and transaction history display
  */
 public class AccountOperationsController {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int PAGE_SIZE = 200; // Transactions loaded per page
+    private static final int PREFETCH_ROWS = 50; // Load the next page when a row this close to the end is shown
+
+    // Background thread that builds table rows, so the FX thread never walks the history
+    private static final ExecutorService HISTORY_LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "history-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     // Account and banking system references
     private Account currentAccount;
     private BankingSystem bankingSystem;
 
+    // Rows shown in the table, most recent first. They cover the history indexes
+    // [oldestLoadedIndex, newestLoadedCount), so only missing rows are ever built.
+    private final ObservableList<TransactionDisplay> transactionRows = FXCollections.observableArrayList();
+    private int newestLoadedCount;
+    private int oldestLoadedIndex;
+    private boolean pageLoading;
+
     // Inner class for transaction display in the TableView
     public static class TransactionDisplay {
         private final String date;
         private final String type;
-        private final double amount;
+        private final String amount;
         private final String description;
 
         public TransactionDisplay(Transaction transaction) {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            this.date = transaction.getDate().format(formatter);
+            this.date = transaction.getDate().format(DATE_FORMATTER);
             this.type = transaction.getType().getDescription();
-            this.amount = transaction.getAmount();
+            this.amount = Money.format(transaction.getAmount());
             this.description = transaction.getDescription();
         }
 
@@ -55,7 +79,7 @@ public class AccountOperationsController {
             return type;
         }
 
-        public double getAmount() {
+        public String getAmount() {
             return amount;
         }
 
@@ -96,7 +120,7 @@ public class AccountOperationsController {
     private TableColumn<TransactionDisplay, String> typeColumn;
 
     @FXML
-    private TableColumn<TransactionDisplay, Double> amountColumn;
+    private TableColumn<TransactionDisplay, String> amountColumn;
 
     @FXML
     private TableColumn<TransactionDisplay, String> descriptionColumn;
@@ -117,6 +141,20 @@ public class AccountOperationsController {
             if (descriptionColumn != null)
                 descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
 
+            if (transactionTable != null) {
+                transactionTable.setItems(transactionRows);
+                // Rows are only created for visible indexes, so this loads older pages as the user scrolls
+                transactionTable.setRowFactory(table -> new TableRow<>() {
+                    @Override
+                    protected void updateItem(TransactionDisplay item, boolean empty) {
+                        super.updateItem(item, empty);
+                        if (!empty && getIndex() >= transactionRows.size() - PREFETCH_ROWS) {
+                            loadOlderPage();
+                        }
+                    }
+                });
+            }
+
             // Clear status message
             if (statusLabel != null) {
                 statusLabel.setText("");
@@ -156,12 +194,12 @@ public class AccountOperationsController {
                 if (account instanceof SavingsAccount) {
                     SavingsAccount savingsAccount = (SavingsAccount) account;
                     additionalDetailsLabel.setText("Minimum Balance / Interest Rate:");
-                    additionalDetailsValueLabel.setText(String.format("$%.2f / %.2f%%",
-                            savingsAccount.getMinBalance(), savingsAccount.getInterestRate() * 100));
+                    additionalDetailsValueLabel.setText(String.format("$%s / %.2f%%",
+                            Money.format(savingsAccount.getMinBalance()), savingsAccount.getInterestRate() * 100));
                 } else if (account instanceof CurrentAccount) {
                     CurrentAccount currentAccount = (CurrentAccount) account;
                     additionalDetailsLabel.setText("Overdraft Limit:");
-                    additionalDetailsValueLabel.setText(String.format("$%.2f", currentAccount.getOverdraftLimit()));
+                    additionalDetailsValueLabel.setText("$" + Money.format(currentAccount.getOverdraftLimit()));
                 } else if (account instanceof FixedDepositAccount) {
                     FixedDepositAccount fixedAccount = (FixedDepositAccount) account;
                     additionalDetailsLabel.setText("Maturity Date / Interest Rate:");
@@ -183,6 +221,7 @@ public class AccountOperationsController {
 
     /**
      * Handle deposit button click
+     * The deposit runs in the background; the labels are updated when it completes
      */
     @FXML
     public void handleDeposit() {
@@ -192,27 +231,21 @@ public class AccountOperationsController {
         }
 
         try {
-            double amount = getAmountFromField();
+            long amount = getAmountFromField();
 
             if (amount <= 0) {
                 statusLabel.setText("Deposit amount must be positive");
                 return;
             }
 
-            boolean success = currentAccount.deposit(amount);
-
-            if (success) {
-                statusLabel.setText(String.format("Successfully deposited $%.2f", amount));
-                updateBalanceDisplay();
-                loadTransactionHistory();
-                amountField.clear();
-            } else {
-                if (currentAccount instanceof FixedDepositAccount) {
-                    statusLabel.setText("Cannot deposit to Fixed Deposit accounts after creation");
-                } else {
-                    statusLabel.setText("Deposit failed");
-                }
-            }
+            Account account = currentAccount;
+            statusLabel.setText("Processing deposit...");
+            bankingSystem.async().deposit(account.getAccountNumber(), amount)
+                    .whenComplete((success, error) -> Platform.runLater(() -> {
+                        if (account == currentAccount) {
+                            depositCompleted(amount, success, error);
+                        }
+                    }));
         } catch (NumberFormatException e) {
             statusLabel.setText("Please enter a valid amount");
         } catch (Exception e) {
@@ -221,8 +254,34 @@ public class AccountOperationsController {
         }
     }
 
+    /**
+     * Show the outcome of a deposit, on the JavaFX application thread
+     */
+    private void depositCompleted(long amount, Boolean success, Throwable error) {
+        if (error != null) {
+            Throwable cause = unwrap(error);
+            statusLabel.setText("Error processing deposit: " + cause.getMessage());
+            cause.printStackTrace();
+            return;
+        }
+
+        if (success) {
+            statusLabel.setText("Successfully deposited $" + Money.format(amount));
+            updateBalanceDisplay();
+            showNewTransactions();
+            amountField.clear();
+        } else {
+            if (currentAccount instanceof FixedDepositAccount) {
+                statusLabel.setText("Cannot deposit to Fixed Deposit accounts after creation");
+            } else {
+                statusLabel.setText("Deposit failed");
+            }
+        }
+    }
+
     /**
      * Handle withdraw button click
+     * The withdrawal runs in the background; the labels are updated when it completes
      */
     @FXML
     public void handleWithdraw() {
@@ -232,44 +291,21 @@ public class AccountOperationsController {
         }
 
         try {
-            double amount = getAmountFromField();
+            long amount = getAmountFromField();
 
             if (amount <= 0) {
                 statusLabel.setText("Withdrawal amount must be positive");
                 return;
             }
 
-            boolean success = currentAccount.withdraw(amount);
-
-            if (success) {
-                statusLabel.setText(String.format("Successfully withdrew $%.2f", amount));
-                updateBalanceDisplay();
-                loadTransactionHistory();
-                amountField.clear();
-            } else {
-                if (currentAccount instanceof SavingsAccount) {
-                    SavingsAccount savingsAccount = (SavingsAccount) currentAccount;
-                    statusLabel.setText(String.format(
-                            "Withdrawal failed: Cannot go below minimum balance of $%.2f",
-                            savingsAccount.getMinBalance()));
-                } else if (currentAccount instanceof CurrentAccount) {
-                    CurrentAccount curAccount = (CurrentAccount) currentAccount;
-                    statusLabel.setText(String.format(
-                            "Withdrawal failed: Would exceed overdraft limit of $%.2f",
-                            curAccount.getOverdraftLimit()));
-                } else if (currentAccount instanceof FixedDepositAccount) {
-                    FixedDepositAccount fixedAccount = (FixedDepositAccount) currentAccount;
-                    if (!fixedAccount.isMatured()) {
-                        statusLabel.setText(String.format(
-                                "Withdrawal failed: Fixed deposit not yet matured (Maturity date: %s)",
-                                fixedAccount.getMaturityDate()));
-                    } else {
-                        statusLabel.setText("Withdrawal failed: Can only withdraw full amount at maturity");
-                    }
-                } else {
-                    statusLabel.setText("Withdrawal failed: Insufficient funds");
-                }
-            }
+            Account account = currentAccount;
+            statusLabel.setText("Processing withdrawal...");
+            bankingSystem.async().withdraw(account.getAccountNumber(), amount)
+                    .whenComplete((success, error) -> Platform.runLater(() -> {
+                        if (account == currentAccount) {
+                            withdrawalCompleted(amount, success, error);
+                        }
+                    }));
         } catch (NumberFormatException e) {
             statusLabel.setText("Please enter a valid amount");
         } catch (Exception e) {
@@ -278,6 +314,48 @@ public class AccountOperationsController {
         }
     }
 
+    /**
+     * Show the outcome of a withdrawal, on the JavaFX application thread
+     */
+    private void withdrawalCompleted(long amount, Boolean success, Throwable error) {
+        if (error != null) {
+            Throwable cause = unwrap(error);
+            statusLabel.setText("Error processing withdrawal: " + cause.getMessage());
+            cause.printStackTrace();
+            return;
+        }
+
+        if (success) {
+            statusLabel.setText("Successfully withdrew $" + Money.format(amount));
+            updateBalanceDisplay();
+            showNewTransactions();
+            amountField.clear();
+        } else {
+            if (currentAccount instanceof SavingsAccount) {
+                SavingsAccount savingsAccount = (SavingsAccount) currentAccount;
+                statusLabel.setText(String.format(
+                        "Withdrawal failed: Cannot go below minimum balance of $%s",
+                        Money.format(savingsAccount.getMinBalance())));
+            } else if (currentAccount instanceof CurrentAccount) {
+                CurrentAccount curAccount = (CurrentAccount) currentAccount;
+                statusLabel.setText(String.format(
+                        "Withdrawal failed: Would exceed overdraft limit of $%s",
+                        Money.format(curAccount.getOverdraftLimit())));
+            } else if (currentAccount instanceof FixedDepositAccount) {
+                FixedDepositAccount fixedAccount = (FixedDepositAccount) currentAccount;
+                if (!fixedAccount.isMatured()) {
+                    statusLabel.setText(String.format(
+                            "Withdrawal failed: Fixed deposit not yet matured (Maturity date: %s)",
+                            fixedAccount.getMaturityDate()));
+                } else {
+                    statusLabel.setText("Withdrawal failed: Can only withdraw full amount at maturity");
+                }
+            } else {
+                statusLabel.setText("Withdrawal failed: Insufficient funds");
+            }
+        }
+    }
+
     /**
      * Handle back button click
      * Navigates back to the account selection view
@@ -359,17 +437,17 @@ public class AccountOperationsController {
      */
     private void updateBalanceDisplay() {
         if (balanceLabel != null && currentAccount != null) {
-            balanceLabel.setText(String.format("$%.2f", currentAccount.getBalance()));
+            balanceLabel.setText("$" + Money.format(currentAccount.getBalance()));
         }
     }
 
     /**
      * Get the amount from the amount field
      *
-     * @return The amount as a double
+     * @return The amount in cents
      * @throws NumberFormatException if the amount is not a valid number
      */
-    private double getAmountFromField() throws NumberFormatException {
+    private long getAmountFromField() throws NumberFormatException {
         if (amountField == null) {
             throw new NumberFormatException("Amount field not initialized");
         }
@@ -378,11 +456,12 @@ public class AccountOperationsController {
         if (amountText.isEmpty()) {
             throw new NumberFormatException("Amount cannot be empty");
         }
-        return Double.parseDouble(amountText);
+        return Money.parse(amountText);
     }
 
     /**
      * Load the transaction history into the table view
+     * Only the most recent page is loaded; older pages follow as the user scrolls
      */
     private void loadTransactionHistory() {
         if (transactionTable == null || currentAccount == null) {
@@ -390,21 +469,80 @@ public class AccountOperationsController {
             return;
         }
 
-        try {
-            // Get transactions from the account
-            List<Transaction> transactions = currentAccount.getTransactionHistory().getAllTransactions();
+        transactionRows.clear();
+        newestLoadedCount = currentAccount.getTransactionHistory().getCount();
+        oldestLoadedIndex = newestLoadedCount;
+        pageLoading = false;
+        loadOlderPage();
+    }
 
-            // Convert to display objects
-            ObservableList<TransactionDisplay> displayTransactions = FXCollections.observableArrayList();
-            for (Transaction transaction : transactions) {
-                displayTransactions.add(new TransactionDisplay(transaction));
+    /**
+     * Build the next page of older rows in the background and append it to the table
+     */
+    private void loadOlderPage() {
+        if (pageLoading || currentAccount == null || oldestLoadedIndex == 0) {
+            return;
+        }
+
+        Account account = currentAccount;
+        TransactionHistory history = account.getTransactionHistory();
+        int end = oldestLoadedIndex;
+        int start = Math.max(0, end - PAGE_SIZE);
+
+        Task<List<TransactionDisplay>> task = new Task<>() {
+            @Override
+            protected List<TransactionDisplay> call() {
+                return buildRows(history, start, end);
             }
+        };
+        task.setOnSucceeded(event -> {
+            pageLoading = false;
+            // Ignore the page if the table was reloaded while it was being built
+            if (account == currentAccount && end == oldestLoadedIndex) {
+                transactionRows.addAll(task.getValue());
+                oldestLoadedIndex = start;
+            }
+        });
+        task.setOnFailed(event -> {
+            pageLoading = false;
+            System.err.println("Error loading transaction history: " + task.getException().getMessage());
+        });
+
+        pageLoading = true;
+        HISTORY_LOADER.execute(task);
+    }
 
-            // Update the table
-            transactionTable.setItems(displayTransactions);
-        } catch (Exception e) {
-            System.err.println("Error loading transaction history: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Add the rows for transactions recorded since the table was last updated
+     */
+    private void showNewTransactions() {
+        if (transactionTable == null || currentAccount == null) {
+            return;
+        }
+
+        TransactionHistory history = currentAccount.getTransactionHistory();
+        int count = history.getCount();
+        if (count > newestLoadedCount) {
+            transactionRows.addAll(0, buildRows(history, newestLoadedCount, count));
+            newestLoadedCount = count;
+        }
+    }
+
+    /**
+     * Get the exception an asynchronous operation actually failed with
+     */
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Build the rows for the history indexes [start, end), most recent first
+     */
+    private static List<TransactionDisplay> buildRows(TransactionHistory history, int start, int end) {
+        List<TransactionDisplay> rows = new ArrayList<>(end - start);
+        for (int i = end - 1; i >= start; i--) {
+            rows.add(new TransactionDisplay(history.get(i)));
         }
+        return rows;
     }
-}
\ No newline at end of file
+}
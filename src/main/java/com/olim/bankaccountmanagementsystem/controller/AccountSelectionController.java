@@ -1,11 +1,13 @@
 package com.olim.bankaccountmanagementsystem.controller;
 
+import com.olim.bankaccountmanagementsystem.BankApplication;
 import com.olim.bankaccountmanagementsystem.model.Person;
 import com.olim.bankaccountmanagementsystem.model.account.Account;
 import com.olim.bankaccountmanagementsystem.model.account.CurrentAccount;
 import com.olim.bankaccountmanagementsystem.model.account.FixedDepositAccount;
 import com.olim.bankaccountmanagementsystem.model.account.SavingsAccount;
 import com.olim.bankaccountmanagementsystem.services.BankingSystem;
+import com.olim.bankaccountmanagementsystem.util.Money;
 
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -26,8 +28,8 @@ import java.util.List;
  * Handles account access and creation
  */
 public class AccountSelectionController {
-    // Banking system service
-    private final BankingSystem bankingSystem = new BankingSystem();
+    // Banking system service, shared across screens so accounts are not lost on navigation
+    private final BankingSystem bankingSystem = BankApplication.getBankingSystem();
 
     // UI components
     @FXML
@@ -162,8 +164,8 @@ public class AccountSelectionController {
         }
 
         try {
-            // Parse the initial balance
-            double initialBalance = Double.parseDouble(initialBalanceField.getText());
+            // Parse the initial balance into cents
+            long initialBalance = Money.parse(initialBalanceField.getText());
 
             if (initialBalance < 0) {
                 statusLabel.setText("Initial balance cannot be negative");
@@ -188,7 +190,7 @@ public class AccountSelectionController {
                     return;
                 }
 
-                double minBalance = Double.parseDouble(minBalanceField.getText());
+                long minBalance = Money.parse(minBalanceField.getText());
                 double interestRate = Double.parseDouble(savingsInterestRateField.getText()) / 100; // Convert from percentage
 
                 newAccount = bankingSystem.createSavingsAccount(owner, initialBalance, minBalance, interestRate);
@@ -203,7 +205,7 @@ public class AccountSelectionController {
                     return;
                 }
 
-                double overdraftLimit = Double.parseDouble(overdraftLimitField.getText());
+                long overdraftLimit = Money.parse(overdraftLimitField.getText());
                 newAccount = bankingSystem.createCurrentAccount(owner, initialBalance, overdraftLimit);
             } else if ("Fixed Deposit Account".equals(accountType)) {
                 if (termField == null || fixedInterestRateField == null) {
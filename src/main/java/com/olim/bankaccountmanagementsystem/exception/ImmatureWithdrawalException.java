@@ -3,6 +3,8 @@ package com.olim.bankaccountmanagementsystem.exception;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+
 /**
  * Exception thrown when attempting to withdraw from a fixed deposit before maturity
  * This demonstrates custom exceptions in Java
@@ -24,7 +26,7 @@ public class ImmatureWithdrawalException extends Exception {
                 accountNumber, maturityDate.format(DateTimeFormatter.ISO_LOCAL_DATE)));
         this.accountNumber = accountNumber;
         this.maturityDate = maturityDate;
-        this.currentDate = LocalDate.now();
+        this.currentDate = BankClock.today();
     }
     
     // Getters
@@ -1,5 +1,7 @@
 package com.olim.bankaccountmanagementsystem.exception;
 
+import com.olim.bankaccountmanagementsystem.util.Money;
+
 /**
  * Exception thrown when a withdrawal would result in insufficient funds
  * This demonstrates custom exceptions in Java
@@ -7,19 +9,19 @@ package com.olim.bankaccountmanagementsystem.exception;
 public class InsufficientFundsException extends Exception {
     private static final long serialVersionUID = 1L;
     private String accountNumber;
-    private double requestedAmount;
-    private double availableBalance;
+    private long requestedAmount;
+    private long availableBalance;
     
     /**
      * Constructor for an insufficient funds exception
      * 
      * @param accountNumber The account number
-     * @param requestedAmount The requested withdrawal amount
-     * @param availableBalance The available balance
+     * @param requestedAmount The requested withdrawal amount in cents
+     * @param availableBalance The available balance in cents
      */
-    public InsufficientFundsException(String accountNumber, double requestedAmount, double availableBalance) {
-        super(String.format("Insufficient funds in account %s: Requested: $%.2f, Available: $%.2f", 
-                accountNumber, requestedAmount, availableBalance));
+    public InsufficientFundsException(String accountNumber, long requestedAmount, long availableBalance) {
+        super(String.format("Insufficient funds in account %s: Requested: $%s, Available: $%s", 
+                accountNumber, Money.format(requestedAmount), Money.format(availableBalance)));
         this.accountNumber = accountNumber;
         this.requestedAmount = requestedAmount;
         this.availableBalance = availableBalance;
@@ -30,11 +32,11 @@ public class InsufficientFundsException extends Exception {
         return accountNumber;
     }
     
-    public double getRequestedAmount() {
+    public long getRequestedAmount() {
         return requestedAmount;
     }
     
-    public double getAvailableBalance() {
+    public long getAvailableBalance() {
         return availableBalance;
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.olim.bankaccountmanagementsystem.exception;
 
+import com.olim.bankaccountmanagementsystem.util.Money;
+
 /**
  * Exception thrown when a withdrawal would result in balance below minimum
  * This demonstrates custom exceptions in Java
@@ -7,22 +9,23 @@ package com.olim.bankaccountmanagementsystem.exception;
 public class MinimumBalanceException extends Exception {
     private static final long serialVersionUID = 1L;
     private String accountNumber;
-    private double requestedAmount;
-    private double availableBalance;
-    private double minimumBalance;
+    private long requestedAmount;
+    private long availableBalance;
+    private long minimumBalance;
     
     /**
      * Constructor for a minimum balance exception
      * 
      * @param accountNumber The account number
-     * @param requestedAmount The requested withdrawal amount
-     * @param availableBalance The available balance
-     * @param minimumBalance The minimum balance requirement
+     * @param requestedAmount The requested withdrawal amount in cents
+     * @param availableBalance The available balance in cents
+     * @param minimumBalance The minimum balance requirement in cents
      */
-    public MinimumBalanceException(String accountNumber, double requestedAmount, 
-                                 double availableBalance, double minimumBalance) {
-        super(String.format("Withdrawal of $%.2f from account %s would result in balance $%.2f below minimum $%.2f", 
-                requestedAmount, accountNumber, availableBalance - requestedAmount, minimumBalance));
+    public MinimumBalanceException(String accountNumber, long requestedAmount, 
+                                 long availableBalance, long minimumBalance) {
+        super(String.format("Withdrawal of $%s from account %s would result in balance $%s below minimum $%s", 
+                Money.format(requestedAmount), accountNumber, Money.format(availableBalance - requestedAmount),
+                Money.format(minimumBalance)));
         this.accountNumber = accountNumber;
         this.requestedAmount = requestedAmount;
         this.availableBalance = availableBalance;
@@ -34,15 +37,15 @@ public class MinimumBalanceException extends Exception {
         return accountNumber;
     }
     
-    public double getRequestedAmount() {
+    public long getRequestedAmount() {
         return requestedAmount;
     }
     
-    public double getAvailableBalance() {
+    public long getAvailableBalance() {
         return availableBalance;
     }
     
-    public double getMinimumBalance() {
+    public long getMinimumBalance() {
         return minimumBalance;
     }
 }
\ No newline at end of file
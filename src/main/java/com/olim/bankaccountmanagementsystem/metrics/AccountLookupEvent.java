@@ -0,0 +1,53 @@
+package com.olim.bankaccountmanagementsystem.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one account lookup by number
+ * Disabled by default, like every banking event
+ */
+@Name("com.olim.bankaccountmanagementsystem.AccountLookup")
+@Label("Account Lookup")
+@Category({"Banking", "Accounts"})
+@Description("A lookup of an account by its account number")
+@Enabled(false)
+@StackTrace(false)
+public final class AccountLookupEvent extends Event {
+    @Label("Account Number")
+    String accountNumber;
+
+    @Label("Found")
+    boolean found;
+
+    /**
+     * Create an event and start timing it
+     *
+     * @return The started event
+     */
+    public static AccountLookupEvent start() {
+        AccountLookupEvent event = new AccountLookupEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stop timing and commit the event if a recording wants it
+     *
+     * @param accountNumber The account number looked up
+     * @param found Whether an account was found
+     */
+    public void finish(String accountNumber, boolean found) {
+        end();
+        if (shouldCommit()) {
+            this.accountNumber = accountNumber;
+            this.found = found;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.olim.bankaccountmanagementsystem.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+
+/**
+ * Flight Recorder event for one deposit, withdrawal or transfer
+ * This demonstrates custom JFR events in Java
+ *
+ * Disabled by default: until a recording enables it, creating, beginning and
+ * finishing the event is optimized away by the JIT compiler.
+ */
+@Name("com.olim.bankaccountmanagementsystem.AccountOperation")
+@Label("Account Operation")
+@Category({"Banking", "Accounts"})
+@Description("A deposit, withdrawal or transfer, including the wait for the account lock and the journal")
+@Enabled(false)
+@StackTrace(false)
+public final class AccountOperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Account Number")
+    String accountNumber;
+
+    @Label("Account Type")
+    String accountType;
+
+    @Label("Amount")
+    @Description("The amount in cents")
+    long amount;
+
+    @Label("Target Account Number")
+    @Description("The credited account of a transfer")
+    String targetAccountNumber;
+
+    @Label("Succeeded")
+    @Description("False if the account's rules rejected the operation or it failed with an exception")
+    boolean succeeded;
+
+    /**
+     * Create an event and start timing it
+     *
+     * @return The started event
+     */
+    public static AccountOperationEvent start() {
+        AccountOperationEvent event = new AccountOperationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stop timing and commit the event if a recording wants it
+     *
+     * @param operation The operation, e.g. DEPOSIT
+     * @param account The account operated on (the debited account of a transfer)
+     * @param target The credited account of a transfer, null otherwise
+     * @param amount The amount in cents
+     * @param succeeded Whether the operation was made
+     */
+    public void finish(String operation, Account account, Account target, long amount, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.accountNumber = account.getAccountNumber();
+            this.accountType = account.getAccountType().name();
+            this.amount = amount;
+            this.targetAccountNumber = target == null ? null : target.getAccountNumber();
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.olim.bankaccountmanagementsystem.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.olim.bankaccountmanagementsystem.model.account.AccountType;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+
+/**
+ * Process-wide counters and latency histograms of the banking operations
+ * This demonstrates utility classes and static methods in Java
+ *
+ * The record methods are called on the hot paths: they only add to striped
+ * counters and histograms, take no locks and allocate nothing. Everything is
+ * published through the platform MBean server once {@link #registerMBean()} is called.
+ */
+public final class BankMetrics {
+    /** The name the metrics are registered under */
+    public static final String OBJECT_NAME = "com.olim.bankaccountmanagementsystem:type=BankMetrics";
+
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+    private static final AccountType[] ACCOUNT_TYPES = AccountType.values();
+
+    // Counters indexed by enum ordinal
+    private static final LongAdder[] TRANSACTION_COUNTS = newAdders(TRANSACTION_TYPES.length);
+    private static final LongAdder[] TRANSACTION_AMOUNTS = newAdders(TRANSACTION_TYPES.length);
+    private static final LongAdder[] ACCOUNT_OPERATIONS = newAdders(ACCOUNT_TYPES.length);
+
+    private static final LatencyHistogram DEPOSIT_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram WITHDRAW_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram TRANSFER_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram FIND_ACCOUNT_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram INTEREST_RUN_LATENCY = new LatencyHistogram();
+
+    // Private constructor to prevent instantiation
+    private BankMetrics() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Count a recorded transaction
+     *
+     * @param type The transaction type
+     * @param amount The amount in cents
+     */
+    public static void recordTransaction(TransactionType type, long amount) {
+        TRANSACTION_COUNTS[type.ordinal()].increment();
+        TRANSACTION_AMOUNTS[type.ordinal()].add(amount);
+    }
+
+    /**
+     * Record a deposit call, successful or not
+     *
+     * @param accountType The type of the account
+     * @param nanos How long the call took, including waiting for the lock and the journal
+     */
+    public static void recordDeposit(AccountType accountType, long nanos) {
+        ACCOUNT_OPERATIONS[accountType.ordinal()].increment();
+        DEPOSIT_LATENCY.record(nanos);
+    }
+
+    /**
+     * Record a withdrawal call, successful or not
+     *
+     * @param accountType The type of the account
+     * @param nanos How long the call took, including waiting for the lock and the journal
+     */
+    public static void recordWithdraw(AccountType accountType, long nanos) {
+        ACCOUNT_OPERATIONS[accountType.ordinal()].increment();
+        WITHDRAW_LATENCY.record(nanos);
+    }
+
+    /**
+     * Record a transfer call, successful or not
+     *
+     * @param sourceType The type of the debited account
+     * @param nanos How long the call took, including waiting for both locks and the journal
+     */
+    public static void recordTransfer(AccountType sourceType, long nanos) {
+        ACCOUNT_OPERATIONS[sourceType.ordinal()].increment();
+        TRANSFER_LATENCY.record(nanos);
+    }
+
+    /**
+     * Record an account lookup by number
+     *
+     * @param nanos How long the lookup took
+     */
+    public static void recordFindAccount(long nanos) {
+        FIND_ACCOUNT_LATENCY.record(nanos);
+    }
+
+    /**
+     * Record a complete interest run
+     *
+     * @param nanos How long the run took
+     */
+    public static void recordInterestRun(long nanos) {
+        INTEREST_RUN_LATENCY.record(nanos);
+    }
+
+    /**
+     * Publish the metrics through the platform MBean server
+     * Calling it again has no effect
+     *
+     * @throws IllegalStateException if the MBean cannot be registered
+     */
+    public static void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Already published
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Get the current metrics, the same view JMX clients see
+     *
+     * @return A view over the live counters and histograms
+     */
+    public static BankMetricsMXBean view() {
+        return new Bean();
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static <E extends Enum<E>> Map<String, Long> sums(E[] keys, LongAdder[] adders) {
+        Map<String, Long> sums = new LinkedHashMap<>();
+        for (E key : keys) {
+            sums.put(key.name(), adders[key.ordinal()].sum());
+        }
+        return sums;
+    }
+
+    /**
+     * The MBean; every attribute is computed from the live counters when read
+     */
+    private static final class Bean implements BankMetricsMXBean {
+        @Override
+        public Map<String, Long> getTransactionCounts() {
+            return sums(TRANSACTION_TYPES, TRANSACTION_COUNTS);
+        }
+
+        @Override
+        public Map<String, Long> getTransactionAmounts() {
+            return sums(TRANSACTION_TYPES, TRANSACTION_AMOUNTS);
+        }
+
+        @Override
+        public Map<String, Long> getAccountOperationCounts() {
+            return sums(ACCOUNT_TYPES, ACCOUNT_OPERATIONS);
+        }
+
+        @Override
+        public LatencySnapshot getDepositLatency() {
+            return DEPOSIT_LATENCY.snapshot();
+        }
+
+        @Override
+        public LatencySnapshot getWithdrawLatency() {
+            return WITHDRAW_LATENCY.snapshot();
+        }
+
+        @Override
+        public LatencySnapshot getTransferLatency() {
+            return TRANSFER_LATENCY.snapshot();
+        }
+
+        @Override
+        public LatencySnapshot getFindAccountByNumberLatency() {
+            return FIND_ACCOUNT_LATENCY.snapshot();
+        }
+
+        @Override
+        public LatencySnapshot getInterestRunLatency() {
+            return INTEREST_RUN_LATENCY.snapshot();
+        }
+
+        @Override
+        public void reset() {
+            for (LongAdder adder : TRANSACTION_COUNTS) {
+                adder.reset();
+            }
+            for (LongAdder adder : TRANSACTION_AMOUNTS) {
+                adder.reset();
+            }
+            for (LongAdder adder : ACCOUNT_OPERATIONS) {
+                adder.reset();
+            }
+            DEPOSIT_LATENCY.reset();
+            WITHDRAW_LATENCY.reset();
+            TRANSFER_LATENCY.reset();
+            FIND_ACCOUNT_LATENCY.reset();
+            INTEREST_RUN_LATENCY.reset();
+        }
+    }
+}
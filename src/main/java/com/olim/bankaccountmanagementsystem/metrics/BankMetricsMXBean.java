@@ -0,0 +1,39 @@
+package com.olim.bankaccountmanagementsystem.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of the banking metrics
+ * Registered with the platform MBean server as {@value BankMetrics#OBJECT_NAME}
+ */
+public interface BankMetricsMXBean {
+    /**
+     * @return The number of transactions recorded since start, by transaction type
+     */
+    Map<String, Long> getTransactionCounts();
+
+    /**
+     * @return The total amount in cents of the transactions recorded since start, by transaction type
+     */
+    Map<String, Long> getTransactionAmounts();
+
+    /**
+     * @return The number of deposits, withdrawals and transfers attempted since start, by account type
+     */
+    Map<String, Long> getAccountOperationCounts();
+
+    LatencySnapshot getDepositLatency();
+
+    LatencySnapshot getWithdrawLatency();
+
+    LatencySnapshot getTransferLatency();
+
+    LatencySnapshot getFindAccountByNumberLatency();
+
+    LatencySnapshot getInterestRunLatency();
+
+    /**
+     * Set all counters and histograms back to zero
+     */
+    void reset();
+}
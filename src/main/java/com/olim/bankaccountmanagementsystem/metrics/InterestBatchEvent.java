@@ -0,0 +1,60 @@
+package com.olim.bankaccountmanagementsystem.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one chunk of savings accounts posted by an interest run
+ * Disabled by default, like every banking event
+ */
+@Name("com.olim.bankaccountmanagementsystem.InterestBatch")
+@Label("Interest Batch")
+@Category({"Banking", "Interest"})
+@Description("Interest posted to one chunk of savings accounts by a fork/join worker")
+@Enabled(false)
+@StackTrace(false)
+public final class InterestBatchEvent extends Event {
+    @Label("Accounts")
+    int accounts;
+
+    @Label("Failed")
+    @Description("Accounts the interest could not be posted to")
+    int failed;
+
+    @Label("Interest")
+    @Description("The interest posted in cents")
+    long interest;
+
+    /**
+     * Create an event and start timing it
+     *
+     * @return The started event
+     */
+    public static InterestBatchEvent start() {
+        InterestBatchEvent event = new InterestBatchEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stop timing and commit the event if a recording wants it
+     *
+     * @param accounts The number of accounts in the chunk
+     * @param failed The number of accounts the posting failed for
+     * @param interest The interest posted in cents
+     */
+    public void finish(int accounts, int failed, long interest) {
+        end();
+        if (shouldCommit()) {
+            this.accounts = accounts;
+            this.failed = failed;
+            this.interest = interest;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.olim.bankaccountmanagementsystem.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds, in the style of HdrHistogram
+ * Values below 128 get a bucket each; above that, every power of two is split
+ * into 64 buckets, so any recorded value is reported within 1.6% of its true value
+ * across the whole range of a long.
+ *
+ * Recording is one atomic increment and allocates nothing. Counts are striped by
+ * thread, so threads recording at the same time rarely write the same cache line;
+ * reading merges the stripes.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS; // 128
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >>> 1; // 64
+    // Buckets up to the top power of two of a positive long, whose values are shifted by 63 - SUB_BUCKET_BITS
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF + SUB_BUCKET_COUNT;
+    private static final int MAX_STRIPES = 16;
+
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructor for an empty histogram with about one stripe per available processor
+     */
+    public LatencyHistogram() {
+        int processors = Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors());
+        int stripeCount = processors == 1 ? 1 : Integer.highestOneBit(processors - 1) << 1;
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Record one latency
+     *
+     * @param nanos The latency in nanoseconds; negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        int stripe = (int) Thread.currentThread().threadId() & stripeMask;
+        stripes[stripe].getAndIncrement(indexOf(value));
+
+        // Only write when the maximum actually grows, which quickly becomes rare
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Capture the current distribution
+     * Recording may continue meanwhile; the snapshot reflects some point during the call
+     *
+     * @return The count, mean, percentiles and maximum
+     */
+    public LatencySnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        double sum = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long count = stripe.get(i);
+                if (count != 0) {
+                    counts[i] += count;
+                    total += count;
+                    sum += (double) count * midpointOf(i);
+                }
+            }
+        }
+        if (total == 0) {
+            return new LatencySnapshot(0, 0, 0, 0, 0, 0);
+        }
+        return new LatencySnapshot(total, sum / total,
+                percentile(counts, total, 0.50),
+                percentile(counts, total, 0.99),
+                percentile(counts, total, 0.999),
+                max.get());
+    }
+
+    /**
+     * Forget everything recorded so far
+     * Latencies recorded during the reset may or may not be kept
+     */
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        max.set(0);
+    }
+
+    /**
+     * Get the smallest value whose rank covers the given fraction of all recorded values
+     * Reported as the highest value of its bucket, so it never understates a latency
+     */
+    private static long percentile(long[] counts, long total, double fraction) {
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(counts.length - 1);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Shift so the value keeps its top SUB_BUCKET_BITS bits, which land in [64, 128)
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    private static long lowestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - shift * SUB_BUCKET_HALF;
+        return subBucket << shift;
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - shift * SUB_BUCKET_HALF;
+        long next = (subBucket + 1) << shift;
+        // The very last bucket ends at the largest long
+        return next <= 0 ? Long.MAX_VALUE : next - 1;
+    }
+
+    private static double midpointOf(int index) {
+        return (lowestValueOf(index) + (double) highestValueOf(index)) / 2;
+    }
+}
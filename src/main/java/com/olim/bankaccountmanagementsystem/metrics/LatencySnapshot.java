@@ -0,0 +1,64 @@
+package com.olim.bankaccountmanagementsystem.metrics;
+
+/**
+ * The distribution of a LatencyHistogram at one point in time
+ * All latencies are in nanoseconds. Over JMX it appears as composite data
+ * with one item per getter.
+ */
+public class LatencySnapshot {
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    /**
+     * Constructor for a snapshot
+     *
+     * @param count The number of recorded latencies
+     * @param mean The mean latency
+     * @param p50 The median latency
+     * @param p99 The 99th percentile latency
+     * @param p999 The 99.9th percentile latency
+     * @param max The highest recorded latency
+     */
+    public LatencySnapshot(long count, double mean, long p50, long p99, long p999, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.0fns p50=%dns p99=%dns p999=%dns max=%dns",
+                count, mean, p50, p99, p999, max);
+    }
+}
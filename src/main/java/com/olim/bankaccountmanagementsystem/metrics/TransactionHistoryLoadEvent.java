@@ -0,0 +1,66 @@
+package com.olim.bankaccountmanagementsystem.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one page of transactions copied out of a history
+ * Disabled by default, like every banking event. The history does not know its
+ * account, so the stack trace is recorded to show who loaded the page.
+ */
+@Name("com.olim.bankaccountmanagementsystem.TransactionHistoryLoad")
+@Label("Transaction History Load")
+@Category({"Banking", "Transactions"})
+@Description("A page of an account's transaction history copied into a list")
+@Enabled(false)
+@StackTrace(true)
+public final class TransactionHistoryLoadEvent extends Event {
+    @Label("Offset")
+    @Description("The number of most recent transactions skipped")
+    int offset;
+
+    @Label("Limit")
+    int limit;
+
+    @Label("Loaded")
+    @Description("The number of transactions copied")
+    int loaded;
+
+    @Label("History Size")
+    int historySize;
+
+    /**
+     * Create an event and start timing it
+     *
+     * @return The started event
+     */
+    public static TransactionHistoryLoadEvent start() {
+        TransactionHistoryLoadEvent event = new TransactionHistoryLoadEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stop timing and commit the event if a recording wants it
+     *
+     * @param offset The number of most recent transactions skipped
+     * @param limit The maximum number of transactions requested
+     * @param loaded The number of transactions copied
+     * @param historySize The number of transactions in the history
+     */
+    public void finish(int offset, int limit, int loaded, int historySize) {
+        end();
+        if (shouldCommit()) {
+            this.offset = offset;
+            this.limit = limit;
+            this.loaded = loaded;
+            this.historySize = historySize;
+            commit();
+        }
+    }
+}
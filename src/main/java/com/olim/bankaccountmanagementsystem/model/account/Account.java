@@ -1,37 +1,64 @@
 package com.olim.bankaccountmanagementsystem.model.account;
 
+import com.olim.bankaccountmanagementsystem.metrics.AccountOperationEvent;
+import com.olim.bankaccountmanagementsystem.metrics.BankMetrics;
 import com.olim.bankaccountmanagementsystem.model.Person;
 import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
 import com.olim.bankaccountmanagementsystem.model.transaction.TransactionHistory;
 import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+import com.olim.bankaccountmanagementsystem.util.Money;
+import com.olim.bankaccountmanagementsystem.util.TransactionIdGenerator;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Abstract base class for all account types
  * This demonstrates abstract classes in Java OOP
+ * 
+ * Every balance mutation runs under this account's own lock, together with
+ * the matching history append, so concurrent tellers never lose updates.
+ * Locks are per account, so operations on different accounts never contend.
+ * 
+ * Alongside the history, every account keeps running per-day totals by
+ * transaction type, so statements for any day, month or period are answered
+ * without reading the transactions.
+ * 
+ * All amounts are in minor units (cents), see {@link Money}.
+ * Every operation and recorded transaction is counted in {@link BankMetrics},
+ * and operations emit an {@link AccountOperationEvent} for Flight Recorder.
  */
 public abstract class Account implements IBankOperations {
     // Protected fields accessible to subclasses
     protected String accountNumber;
-    protected double balance;
+    protected volatile long balance; // Written only while holding lock, readable without it
     protected LocalDate dateCreated;
     protected Person owner;
     protected TransactionHistory transactions;
+    protected final ReentrantLock lock = new ReentrantLock();
+    
+    private final AccountRollups rollups = new AccountRollups(); // Guarded by lock
+    private volatile TransactionListener listener;
+    private volatile BalanceObserver balanceObserver;
+    private long pendingTicket; // Highest commit ticket recorded under the current lock hold
+    private long commitTicket; // Highest commit ticket reflected in this account's state, guarded by lock
     
     /**
      * Constructor for a new account
      * This demonstrates constructor chaining and the this keyword
      * 
      * @param accountNumber The account number
-     * @param initialBalance The initial balance
+     * @param initialBalance The initial balance in cents
      * @param owner The account owner
      */
-    public Account(String accountNumber, double initialBalance, Person owner) {
+    public Account(String accountNumber, long initialBalance, Person owner) {
         this.accountNumber = accountNumber;
         this.balance = initialBalance;
         this.owner = owner;
-        this.dateCreated = LocalDate.now();
+        this.dateCreated = BankClock.today();
         this.transactions = new TransactionHistory();
         
         // Record the initial deposit
@@ -40,12 +67,28 @@ public abstract class Account implements IBankOperations {
         }
     }
     
+    /**
+     * Constructor for restoring an existing account with an empty history
+     * The balance is rebuilt by replaying its transactions
+     * 
+     * @param accountNumber The account number
+     * @param owner The account owner
+     * @param dateCreated The date the account was originally opened
+     */
+    protected Account(String accountNumber, Person owner, LocalDate dateCreated) {
+        this.accountNumber = accountNumber;
+        this.balance = 0;
+        this.owner = owner;
+        this.dateCreated = dateCreated;
+        this.transactions = new TransactionHistory();
+    }
+    
     // Common getters for all account types
     public String getAccountNumber() {
         return accountNumber;
     }
     
-    public double getBalance() {
+    public long getBalance() {
         return balance;
     }
     
@@ -62,35 +105,444 @@ public abstract class Account implements IBankOperations {
         return transactions;
     }
     
+    /**
+     * Get the kind of this account
+     * 
+     * @return The account type
+     */
+    public abstract AccountType getAccountType();
+    
+    /**
+     * Set the listener notified of every transaction recorded from now on
+     * 
+     * @param listener The listener, or null to stop notifications
+     */
+    public void setTransactionListener(TransactionListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Start notifying an observer of every balance change
+     * Taken under the account lock, so the returned balance is exactly the one
+     * the first notification starts from
+     * 
+     * @param observer The observer, replacing any previous one
+     * @return The balance at the moment the observer was attached
+     */
+    public long attachBalanceObserver(BalanceObserver observer) {
+        lock.lock();
+        try {
+            this.balanceObserver = observer;
+            return balance;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
     /**
      * Add a transaction to the history
-     * Protected method used by subclasses to record transactions
+     * Protected method used by subclasses to record transactions, after they updated the balance
+     * The listener is notified first; if it fails, the balance change is undone and nothing is recorded
      * 
-     * @param amount The transaction amount
+     * @param amount The transaction amount in cents
      * @param type The type of transaction
      * @param description A description of the transaction
      */
-    protected void addTransaction(double amount, TransactionType type, String description) {
+    protected void addTransaction(long amount, TransactionType type, String description) {
         Transaction transaction = new Transaction(amount, type, description);
+        
+        TransactionListener currentListener = listener;
+        if (currentListener != null) {
+            try {
+                noteTicket(currentListener.onTransaction(this, transaction));
+            } catch (RuntimeException e) {
+                // Not journaled, so it must not show up in the balance or a later snapshot
+                balance += type.isCredit() ? -amount : amount;
+                throw e;
+            }
+        }
+        
+        appendToHistory(transaction);
+        BankMetrics.recordTransaction(type, amount);
+    }
+    
+    /**
+     * Append a transaction to the history and the rollups, and report the balance change it made
+     * Must be called with the account lock held, after the balance was updated
+     */
+    private void appendToHistory(Transaction transaction) {
         transactions.addTransaction(transaction);
+        rollups.record(transaction);
+        
+        BalanceObserver observer = balanceObserver;
+        if (observer != null) {
+            long change = transaction.getType().isCredit() ? transaction.getAmount() : -transaction.getAmount();
+            observer.onBalanceChanged(this, balance - change, balance);
+        }
     }
     
     /**
-     * Abstract methods to be implemented by subclasses
-     * This demonstrates polymorphism in Java OOP
+     * Remember a commit ticket returned by the listener while the lock is held
+     */
+    private void noteTicket(long ticket) {
+        pendingTicket = Math.max(pendingTicket, ticket);
+        commitTicket = Math.max(commitTicket, ticket);
+    }
+    
+    /**
+     * Get the highest commit ticket whose transaction is reflected in this account's state
+     * Call with the account lock held to read it consistently with the balance
+     * 
+     * @return The commit ticket, 0 if no transaction was committed through a listener
+     */
+    public long getCommitTicket() {
+        return commitTicket;
+    }
+    
+    /**
+     * Note that a transaction committed outside the listener is reflected in this account's state
+     * Must be called with the account lock held
+     * 
+     * @param ticket The commit ticket of that transaction
+     */
+    public void recordCommitTicket(long ticket) {
+        commitTicket = Math.max(commitTicket, ticket);
+    }
+    
+    /**
+     * Re-apply a previously recorded transaction, e.g. when recovering from a journal
+     * Account rules are not checked and the listener is not notified,
+     * since the transaction has already happened
+     * 
+     * @param transaction The transaction to re-apply
+     * @param ticket The commit ticket it was originally recorded with
+     */
+    public void replayTransaction(Transaction transaction, long ticket) {
+        lock.lock();
+        try {
+            if (transaction.getType().isCredit()) {
+                balance += transaction.getAmount();
+            } else {
+                balance -= transaction.getAmount();
+            }
+            appendToHistory(transaction);
+            TransactionIdGenerator.observe(transaction.getId());
+            commitTicket = Math.max(commitTicket, ticket);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Restore the state captured in a snapshot
+     * Only meant for freshly restored accounts that nobody else can see yet
+     * 
+     * @param snapshotBalance The balance at the time of the snapshot
+     * @param recentTransactions The most recent transactions, oldest first
+     * @param ticket The commit ticket reflected in the snapshot
+     */
+    public void restoreSnapshot(long snapshotBalance, List<Transaction> recentTransactions, long ticket) {
+        lock.lock();
+        try {
+            balance = snapshotBalance;
+            for (Transaction transaction : recentTransactions) {
+                appendToHistory(transaction);
+                TransactionIdGenerator.observe(transaction.getId());
+            }
+            // Older transactions are not in the snapshot; their net effect becomes the opening balance
+            rollups.anchorBalance(snapshotBalance);
+            commitTicket = ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Restore the state captured in a snapshot together with the per-day totals of its whole history
+     * Only meant for freshly restored accounts that nobody else can see yet
+     * 
+     * @param snapshotBalance The balance at the time of the snapshot
+     * @param recentTransactions The most recent transactions, oldest first
+     * @param dailySummaries The totals of every day with transactions, as returned by {@link #getDailySummaries()}
+     * @param ticket The commit ticket reflected in the snapshot
+     */
+    public void restoreSnapshot(long snapshotBalance, List<Transaction> recentTransactions,
+                                List<PeriodSummary> dailySummaries, long ticket) {
+        lock.lock();
+        try {
+            balance = snapshotBalance;
+            for (Transaction transaction : recentTransactions) {
+                // The daily totals already include these transactions
+                transactions.addTransaction(transaction);
+                TransactionIdGenerator.observe(transaction.getId());
+            }
+            rollups.restore(dailySummaries);
+            commitTicket = ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Get the totals of every day with transactions, e.g. to save them in a snapshot
+     * Call with the account lock held to read them consistently with the balance
+     * 
+     * @return One summary per day, oldest first
+     */
+    public List<PeriodSummary> getDailySummaries() {
+        lock.lock();
+        try {
+            return rollups.dailySummaries();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Summarize the transactions made on a range of days
+     * Answered from the running per-day totals in O(log days), without reading the history
+     * 
+     * @param from The first day
+     * @param to The last day (inclusive)
+     * @return The totals by type and the balances at the start and end of the period
+     * @throws IllegalArgumentException if the period ends before it starts
+     */
+    public PeriodSummary getPeriodSummary(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("The end date must not be before the start date");
+        }
+        lock.lock();
+        try {
+            return rollups.summarize(from, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Summarize the transactions made on one day
+     * 
+     * @param day The day
+     * @return The totals by type and the opening and closing balances of the day
+     */
+    public PeriodSummary getDailySummary(LocalDate day) {
+        return getPeriodSummary(day, day);
+    }
+    
+    /**
+     * Summarize the transactions made in one calendar month
+     * 
+     * @param month The month
+     * @return The totals by type and the opening and closing balances of the month
+     */
+    public PeriodSummary getMonthlySummary(YearMonth month) {
+        return getPeriodSummary(month.atDay(1), month.atEndOfMonth());
+    }
+    
+    /**
+     * Acquire this account's lock
+     * Operations performed while the caller holds it form one atomic unit
+     * (the lock is reentrant, so deposit and withdraw can still be called)
+     * Must be paired with {@link #releaseLock()}
+     */
+    public final void acquireLock() {
+        lock.lock();
+    }
+    
+    /**
+     * Release the account lock
+     * When the outermost hold is released, wait until the transactions recorded
+     * while it was held are committed by the listener. Waiting happens outside
+     * the lock so other operations on this account can proceed
+     */
+    public final void releaseLock() {
+        long ticket = releaseLockDeferringCommit();
+        
+        TransactionListener currentListener = listener;
+        if (ticket != 0 && currentListener != null) {
+            currentListener.awaitCommit(ticket);
+        }
+    }
+    
+    /**
+     * Release the account lock without waiting for the commit
+     * Lets a caller working through several accounts wait once for all of them;
+     * the caller must pass the returned ticket to the listener's awaitCommit
+     * before reporting the operations as done
+     * 
+     * @return The highest ticket recorded under the outermost hold, or 0 if there is nothing to wait for
+     */
+    public final long releaseLockDeferringCommit() {
+        if (lock.getHoldCount() > 1) {
+            // Nested hold: the outermost release commits everything at once
+            lock.unlock();
+            return 0;
+        }
+        
+        long ticket = pendingTicket;
+        pendingTicket = 0;
+        lock.unlock();
+        return ticket;
+    }
+    
+    /**
+     * Deposit money into the account
+     * The balance check, update and history append happen atomically
+     * 
+     * @param amount The amount to deposit in cents
+     * @return true if the deposit was successful, false otherwise
      */
     @Override
-    public abstract boolean deposit(double amount);
+    public final boolean deposit(long amount) {
+        long start = System.nanoTime();
+        AccountOperationEvent event = AccountOperationEvent.start();
+        boolean succeeded = false;
+        lock.lock();
+        try {
+            succeeded = applyDeposit(amount);
+            return succeeded;
+        } finally {
+            releaseLock();
+            BankMetrics.recordDeposit(getAccountType(), System.nanoTime() - start);
+            event.finish("DEPOSIT", this, null, amount, succeeded);
+        }
+    }
     
+    /**
+     * Withdraw money from the account
+     * The balance check, update and history append happen atomically
+     * 
+     * @param amount The amount to withdraw in cents
+     * @return true if the withdrawal was successful, false otherwise
+     */
     @Override
-    public abstract boolean withdraw(double amount);
+    public final boolean withdraw(long amount) {
+        long start = System.nanoTime();
+        AccountOperationEvent event = AccountOperationEvent.start();
+        boolean succeeded = false;
+        lock.lock();
+        try {
+            succeeded = applyWithdraw(amount);
+            return succeeded;
+        } finally {
+            releaseLock();
+            BankMetrics.recordWithdraw(getAccountType(), System.nanoTime() - start);
+            event.finish("WITHDRAWAL", this, null, amount, succeeded);
+        }
+    }
+    
+    /**
+     * Transfer money from this account to another one
+     * Both accounts are locked for the whole transfer, so the debit and the credit
+     * happen atomically: nobody can observe the money on neither or on both accounts.
+     * The locks are always taken in account number order, so transfers running in
+     * opposite directions between the same accounts cannot deadlock.
+     * 
+     * Both sides are recorded as linked transactions and committed together
+     * through this account's listener.
+     * 
+     * @param target The account to credit
+     * @param amount The amount to transfer in cents
+     * @return true if the transfer was made, false if either account's rules reject it
+     * @throws IllegalArgumentException if the target is this account
+     */
+    public final boolean transferTo(Account target, long amount) {
+        if (target == this) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        
+        long start = System.nanoTime();
+        AccountOperationEvent event = AccountOperationEvent.start();
+        boolean succeeded = false;
+        Account first = accountNumber.compareTo(target.accountNumber) < 0 ? this : target;
+        Account second = first == this ? target : this;
+        long ticket = 0;
+        first.lock.lock();
+        try {
+            second.lock.lock();
+            try {
+                if (!canWithdraw(amount) || !target.canDeposit(amount)) {
+                    return false;
+                }
+                
+                long debitId = TransactionIdGenerator.next();
+                long creditId = TransactionIdGenerator.next();
+                Transaction debit = new Transaction(debitId, amount, TransactionType.TRANSFER_OUT,
+                        "Transfer to " + target.accountNumber, creditId);
+                Transaction credit = new Transaction(creditId, amount, TransactionType.TRANSFER_IN,
+                        "Transfer from " + accountNumber, debitId);
+                
+                // Journal before touching either account, so a failed append leaves both unchanged
+                TransactionListener currentListener = listener;
+                if (currentListener != null) {
+                    long transferTicket = currentListener.onTransfer(this, debit, target, credit);
+                    noteTicket(transferTicket);
+                    target.noteTicket(transferTicket);
+                }
+                
+                balance -= amount;
+                appendToHistory(debit);
+                target.balance += amount;
+                target.appendToHistory(credit);
+                BankMetrics.recordTransaction(TransactionType.TRANSFER_OUT, amount);
+                BankMetrics.recordTransaction(TransactionType.TRANSFER_IN, amount);
+                
+                onDebited();
+                succeeded = true;
+                return true;
+            } finally {
+                ticket = second.releaseLockDeferringCommit();
+            }
+        } finally {
+            // Wait for the commit once both locks are released, so neither account is held through the flush
+            ticket = Math.max(ticket, first.releaseLockDeferringCommit());
+            TransactionListener currentListener = listener;
+            if (ticket != 0 && currentListener != null) {
+                currentListener.awaitCommit(ticket);
+            }
+            BankMetrics.recordTransfer(getAccountType(), System.nanoTime() - start);
+            event.finish("TRANSFER", this, target, amount, succeeded);
+        }
+    }
+    
+    /**
+     * Abstract methods to be implemented by subclasses
+     * They are always called with the account lock held
+     * This demonstrates polymorphism in Java OOP
+     */
+    protected abstract boolean applyDeposit(long amount);
+    
+    protected abstract boolean applyWithdraw(long amount);
+    
+    /**
+     * Check whether this account's rules allow a deposit of the given amount
+     * 
+     * @param amount The amount in cents
+     * @return true if the deposit is allowed
+     */
+    protected abstract boolean canDeposit(long amount);
+    
+    /**
+     * Check whether this account's rules allow a withdrawal of the given amount
+     * 
+     * @param amount The amount in cents
+     * @return true if the withdrawal is allowed
+     */
+    protected abstract boolean canWithdraw(long amount);
+    
+    /**
+     * Called with the lock held after money left the account through a transfer
+     * Subclasses can charge fees here the same way they do after a withdrawal
+     */
+    protected void onDebited() {
+    }
     
     @Override
     public String toString() {
-        return String.format("%s[accountNumber=%s, balance=%.2f, owner=%s]", 
+        return String.format("%s[accountNumber=%s, balance=%s, owner=%s]", 
                 this.getClass().getSimpleName(),
                 accountNumber, 
-                balance, 
+                Money.format(balance), 
                 owner.getName());
     }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package com.olim.bankaccountmanagementsystem.model.account;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+
+/**
+ * Running per-day totals of an account's transactions by type
+ *
+ * There is one row per day with transactions, holding the cumulative amount and
+ * count of every transaction type from the first rolled-up day up to the end of
+ * that day. Recording a transaction of the current day adds to the last row in
+ * O(1); the totals of any period, a day or a month alike, are the difference of
+ * two rows found by binary search, and its opening and closing balances follow
+ * from the credits and debits before and through it.
+ *
+ * Guarded by the owning account's lock.
+ */
+final class AccountRollups {
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final int TYPE_COUNT = TYPES.length;
+    private static final int INITIAL_DAYS = 4;
+
+    private long baseBalance; // The balance before the first rolled-up transaction
+    private int dayCount;
+    private long[] days = new long[INITIAL_DAYS]; // Epoch days, ascending
+    private long[] amounts = new long[INITIAL_DAYS * TYPE_COUNT]; // Cumulative amounts, by day then type ordinal
+    private long[] counts = new long[INITIAL_DAYS * TYPE_COUNT]; // Cumulative counts, same layout
+
+    // Time range of the last day row, so recording on the same day needs no date arithmetic
+    private long lastDayStartMillis = Long.MAX_VALUE;
+    private long lastDayEndMillis = Long.MIN_VALUE;
+
+    /**
+     * Add a transaction to the totals of its day and every later day
+     * Transactions arrive in time order, so that is normally just the last row
+     *
+     * @param transaction The transaction just appended to the history
+     */
+    void record(Transaction transaction) {
+        long timestamp = transaction.getTimestamp();
+        int row;
+        if (timestamp >= lastDayStartMillis && timestamp < lastDayEndMillis) {
+            row = dayCount - 1;
+        } else {
+            LocalDate date = BankClock.toLocalDateTime(timestamp).toLocalDate();
+            row = rowFor(date.toEpochDay());
+            if (row == dayCount - 1) {
+                lastDayStartMillis = BankClock.startOfDayMillis(date);
+                lastDayEndMillis = BankClock.startOfDayMillis(date.plusDays(1));
+            }
+        }
+
+        int type = transaction.getType().ordinal();
+        for (int r = row; r < dayCount; r++) {
+            amounts[r * TYPE_COUNT + type] += transaction.getAmount();
+            counts[r * TYPE_COUNT + type]++;
+        }
+    }
+
+    /**
+     * Set the balance before the first rolled-up transaction so that the balance
+     * after the last one equals the given balance
+     * Used when only the most recent transactions of an account are known
+     *
+     * @param currentBalance The balance after every recorded transaction
+     */
+    void anchorBalance(long currentBalance) {
+        baseBalance = currentBalance - netThrough(dayCount - 1);
+    }
+
+    /**
+     * Get the totals of every day with transactions, so they can be saved and restored
+     *
+     * @return One summary per day, oldest first
+     */
+    List<PeriodSummary> dailySummaries() {
+        List<PeriodSummary> summaries = new ArrayList<>(dayCount);
+        for (int row = 0; row < dayCount; row++) {
+            LocalDate day = LocalDate.ofEpochDay(days[row]);
+            long[] totals = new long[TYPE_COUNT];
+            long[] dayCounts = new long[TYPE_COUNT];
+            for (int type = 0; type < TYPE_COUNT; type++) {
+                totals[type] = valueAt(amounts, row, type) - valueAt(amounts, row - 1, type);
+                dayCounts[type] = valueAt(counts, row, type) - valueAt(counts, row - 1, type);
+            }
+            summaries.add(new PeriodSummary(day, day, baseBalance + netThrough(row - 1),
+                    baseBalance + netThrough(row), totals, dayCounts));
+        }
+        return summaries;
+    }
+
+    /**
+     * Replace all totals with ones saved earlier
+     *
+     * @param summaries One summary per day with transactions, oldest first, as returned by dailySummaries()
+     */
+    void restore(List<PeriodSummary> summaries) {
+        int capacity = Math.max(INITIAL_DAYS, summaries.size());
+        days = new long[capacity];
+        amounts = new long[capacity * TYPE_COUNT];
+        counts = new long[capacity * TYPE_COUNT];
+        dayCount = 0;
+        baseBalance = summaries.isEmpty() ? 0 : summaries.get(0).getOpeningBalance();
+        lastDayStartMillis = Long.MAX_VALUE;
+        lastDayEndMillis = Long.MIN_VALUE;
+
+        for (PeriodSummary summary : summaries) {
+            int row = dayCount++;
+            days[row] = summary.getFrom().toEpochDay();
+            for (TransactionType type : TYPES) {
+                int index = row * TYPE_COUNT + type.ordinal();
+                amounts[index] = valueAt(amounts, row - 1, type.ordinal()) + summary.getTotal(type);
+                counts[index] = valueAt(counts, row - 1, type.ordinal()) + summary.getCount(type);
+            }
+        }
+    }
+
+    /**
+     * Summarize the transactions made on a range of days
+     *
+     * @param from The first day
+     * @param to The last day (inclusive)
+     * @return The totals and the balances before and after the period
+     */
+    PeriodSummary summarize(LocalDate from, LocalDate to) {
+        int before = lastRowBefore(from.toEpochDay());
+        int through = lastRowBefore(to.toEpochDay() + 1);
+
+        long[] totals = new long[TYPE_COUNT];
+        long[] periodCounts = new long[TYPE_COUNT];
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            totals[type] = valueAt(amounts, through, type) - valueAt(amounts, before, type);
+            periodCounts[type] = valueAt(counts, through, type) - valueAt(counts, before, type);
+        }
+        return new PeriodSummary(from, to, baseBalance + netThrough(before), baseBalance + netThrough(through),
+                totals, periodCounts);
+    }
+
+    /**
+     * Get the row of a day, inserting a row for it if it has none
+     */
+    private int rowFor(long day) {
+        if (dayCount > 0 && days[dayCount - 1] == day) {
+            return dayCount - 1;
+        }
+        int row = dayCount > 0 && days[dayCount - 1] < day ? dayCount : Arrays.binarySearch(days, 0, dayCount, day);
+        if (row >= 0 && row < dayCount) {
+            return row;
+        }
+        row = row < 0 ? -row - 1 : row;
+
+        if (dayCount == days.length) {
+            days = Arrays.copyOf(days, dayCount * 2);
+            amounts = Arrays.copyOf(amounts, dayCount * 2 * TYPE_COUNT);
+            counts = Arrays.copyOf(counts, dayCount * 2 * TYPE_COUNT);
+        }
+        // Make room for a day older than the last one, which only happens if the clock went back
+        System.arraycopy(days, row, days, row + 1, dayCount - row);
+        System.arraycopy(amounts, row * TYPE_COUNT, amounts, (row + 1) * TYPE_COUNT, (dayCount - row) * TYPE_COUNT);
+        System.arraycopy(counts, row * TYPE_COUNT, counts, (row + 1) * TYPE_COUNT, (dayCount - row) * TYPE_COUNT);
+
+        // A new day starts with the cumulative totals of the day before
+        days[row] = day;
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            amounts[row * TYPE_COUNT + type] = valueAt(amounts, row - 1, type);
+            counts[row * TYPE_COUNT + type] = valueAt(counts, row - 1, type);
+        }
+        dayCount++;
+        if (row < dayCount - 1) {
+            // The cached range belongs to the last row, which has moved
+            lastDayStartMillis = Long.MAX_VALUE;
+            lastDayEndMillis = Long.MIN_VALUE;
+        }
+        return row;
+    }
+
+    /**
+     * Get the last row of a day before the given one, or -1 if there is none
+     */
+    private int lastRowBefore(long day) {
+        int row = Arrays.binarySearch(days, 0, dayCount, day);
+        return row >= 0 ? row - 1 : -row - 2;
+    }
+
+    private static long valueAt(long[] values, int row, int type) {
+        return row < 0 ? 0 : values[row * TYPE_COUNT + type];
+    }
+
+    /**
+     * Get the credits minus the debits up to the end of a row
+     */
+    private long netThrough(int row) {
+        long net = 0;
+        for (TransactionType type : TYPES) {
+            long amount = valueAt(amounts, row, type.ordinal());
+            net += type.isCredit() ? amount : -amount;
+        }
+        return net;
+    }
+}
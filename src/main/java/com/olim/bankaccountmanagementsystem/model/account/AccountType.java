@@ -0,0 +1,49 @@
+package com.olim.bankaccountmanagementsystem.model.account;
+
+/**
+ * Enum defining the kinds of accounts the bank offers
+ * The prefix is used in account numbers, the code in persisted records
+ */
+public enum AccountType {
+    SAVINGS("SAV", "Savings Account", (byte) 1),
+    CURRENT("CUR", "Current Account", (byte) 2),
+    FIXED_DEPOSIT("FIX", "Fixed Deposit Account", (byte) 3);
+    
+    private final String prefix;
+    private final String description;
+    private final byte code;
+    
+    AccountType(String prefix, String description, byte code) {
+        this.prefix = prefix;
+        this.description = description;
+        this.code = code;
+    }
+    
+    public String getPrefix() {
+        return prefix;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public byte getCode() {
+        return code;
+    }
+    
+    /**
+     * Look up an account type by its persisted code
+     * 
+     * @param code The persisted code
+     * @return The matching account type
+     * @throws IllegalArgumentException if no type has this code
+     */
+    public static AccountType fromCode(byte code) {
+        for (AccountType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown account type code: " + code);
+    }
+}
@@ -0,0 +1,19 @@
+package com.olim.bankaccountmanagementsystem.model.account;
+
+/**
+ * Observer notified of every change to an account's balance
+ * Used by the service layer to keep bank-wide totals up to date
+ */
+@FunctionalInterface
+public interface BalanceObserver {
+    
+    /**
+     * Called right after the balance changed, while the account lock is still held
+     * Must be quick and must not block
+     * 
+     * @param account The account whose balance changed
+     * @param oldBalance The balance before the change in cents
+     * @param newBalance The balance after the change in cents
+     */
+    void onBalanceChanged(Account account, long oldBalance, long newBalance);
+}
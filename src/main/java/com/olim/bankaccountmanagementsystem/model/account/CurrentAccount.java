@@ -1,5 +1,7 @@
 package com.olim.bankaccountmanagementsystem.model.account;
 
+import java.time.LocalDate;
+
 import com.olim.bankaccountmanagementsystem.model.Person;
 import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
 
@@ -8,31 +10,59 @@ import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
  * This demonstrates inheritance and method overriding in Java OOP
  */
 public class CurrentAccount extends Account {
-    private double overdraftLimit;
+    /** Fee charged when a withdrawal or transfer leaves the account overdrawn, in cents */
+    public static final long OVERDRAFT_FEE = 500; // Example fixed fee of $5.00
+    
+    private long overdraftLimit;
     
     /**
      * Constructor for a new current account
      * 
      * @param accountNumber The account number
-     * @param initialBalance The initial balance
+     * @param initialBalance The initial balance in cents
      * @param owner The account owner
-     * @param overdraftLimit The maximum allowed overdraft
+     * @param overdraftLimit The maximum allowed overdraft in cents
      */
-    public CurrentAccount(String accountNumber, double initialBalance, Person owner, double overdraftLimit) {
+    public CurrentAccount(String accountNumber, long initialBalance, Person owner, long overdraftLimit) {
         super(accountNumber, initialBalance, owner);
         this.overdraftLimit = overdraftLimit;
     }
     
+    private CurrentAccount(String accountNumber, Person owner, LocalDate dateCreated, long overdraftLimit) {
+        super(accountNumber, owner, dateCreated);
+        this.overdraftLimit = overdraftLimit;
+    }
+    
+    /**
+     * Restore an existing current account with a zero balance and empty history
+     * Its transactions are replayed afterwards with replayTransaction
+     * 
+     * @param accountNumber The account number
+     * @param owner The account owner
+     * @param dateCreated The date the account was opened
+     * @param overdraftLimit The maximum allowed overdraft in cents
+     * @return The restored account
+     */
+    public static CurrentAccount restore(String accountNumber, Person owner, LocalDate dateCreated,
+                                         long overdraftLimit) {
+        return new CurrentAccount(accountNumber, owner, dateCreated, overdraftLimit);
+    }
+    
+    @Override
+    public AccountType getAccountType() {
+        return AccountType.CURRENT;
+    }
+    
     /**
      * Deposit money into the account
      * This overrides the abstract method from Account
      *
-     * @param amount The amount to deposit
+     * @param amount The amount to deposit in cents
      * @return true if the deposit was successful, false otherwise
      */
     @Override
-    public boolean deposit(double amount) {
-        if (amount <= 0) {
+    protected boolean applyDeposit(long amount) {
+        if (!canDeposit(amount)) {
             return false;
         }
         
@@ -46,29 +76,40 @@ public class CurrentAccount extends Account {
      * This overrides the abstract method from Account
      * Current accounts allow overdrafts up to the overdraft limit
      * 
-     * @param amount The amount to withdraw
+     * @param amount The amount to withdraw in cents
      * @return true if the withdrawal was successful, false otherwise
      */
     @Override
-    public boolean withdraw(double amount) {
-        if (amount <= 0) {
+    protected boolean applyWithdraw(long amount) {
+        if (!canWithdraw(amount)) {
             return false;
         }
         
-        // Check if withdrawal would exceed overdraft limit
-        if (balance - amount < -overdraftLimit) {
-            return false; // Exceeds overdraft limit
-        }
-        
         balance -= amount;
         addTransaction(amount, TransactionType.WITHDRAWAL, "Withdrawal");
-        
-        // If this withdrawal resulted in an overdraft, we could apply a fee
+        onDebited();
+        return true;
+    }
+    
+    @Override
+    protected boolean canDeposit(long amount) {
+        return amount > 0;
+    }
+    
+    @Override
+    protected boolean canWithdraw(long amount) {
+        // Check if withdrawal would exceed overdraft limit
+        return amount > 0 && balance - amount >= -overdraftLimit;
+    }
+    
+    /**
+     * If a withdrawal or transfer resulted in an overdraft, apply a fee
+     */
+    @Override
+    protected void onDebited() {
         if (balance < 0) {
             applyOverdraftFee();
         }
-        
-        return true;
     }
     
     /**
@@ -76,15 +117,19 @@ public class CurrentAccount extends Account {
      * This is called when an account goes into overdraft
      */
     private void applyOverdraftFee() {
-        double fee = 5.0; // Example fixed fee
-        balance -= fee;
-        addTransaction(fee, TransactionType.FEE_CHARGED, "Overdraft fee");
+        balance -= OVERDRAFT_FEE;
+        addTransaction(OVERDRAFT_FEE, TransactionType.FEE_CHARGED, "Overdraft fee");
     }
     // Getters and setters for current-specific properties
-    public double getOverdraftLimit() {
+    public long getOverdraftLimit() {
         return overdraftLimit;
     }
-    public void setOverdraftLimit(double overdraftLimit) {
-        this.overdraftLimit = overdraftLimit;
+    public void setOverdraftLimit(long overdraftLimit) {
+        lock.lock();
+        try {
+            this.overdraftLimit = overdraftLimit;
+        } finally {
+            lock.unlock();
+        }
     }
 }
\ No newline at end of file
@@ -4,42 +4,77 @@ import java.time.LocalDate;
 
 import com.olim.bankaccountmanagementsystem.model.Person;
 import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+import com.olim.bankaccountmanagementsystem.util.Money;
 
 /**
  * Represents a fixed deposit account
  * This demonstrates inheritance and method overriding in Java OOP
  */
 public class FixedDepositAccount extends Account {
-    private double depositAmount;
+    private long depositAmount;
     private double interestRate;
     private LocalDate maturityDate;
+    private long maturityMillis; // Start of the maturity date, so maturity checks compare two numbers
     
     /**
      * Constructor for a new fixed deposit account
      * 
      * @param accountNumber The account number
-     * @param depositAmount The fixed deposit amount
+     * @param depositAmount The fixed deposit amount in cents
      * @param owner The account owner
      * @param termInMonths The term in months until maturity
      * @param interestRate The annual interest rate (e.g., 0.07 for 7%)
      */
-    public FixedDepositAccount(String accountNumber, double depositAmount, Person owner,
+    public FixedDepositAccount(String accountNumber, long depositAmount, Person owner,
                               int termInMonths, double interestRate) {
         super(accountNumber, depositAmount, owner);
         this.depositAmount = depositAmount;
         this.interestRate = interestRate;
-        this.maturityDate = LocalDate.now().plusMonths(termInMonths);
+        this.maturityDate = BankClock.today().plusMonths(termInMonths);
+        this.maturityMillis = BankClock.startOfDayMillis(maturityDate);
+    }
+    
+    private FixedDepositAccount(String accountNumber, Person owner, LocalDate dateCreated,
+                                long depositAmount, double interestRate, LocalDate maturityDate) {
+        super(accountNumber, owner, dateCreated);
+        this.depositAmount = depositAmount;
+        this.interestRate = interestRate;
+        this.maturityDate = maturityDate;
+        this.maturityMillis = BankClock.startOfDayMillis(maturityDate);
+    }
+    
+    /**
+     * Restore an existing fixed deposit account with a zero balance and empty history
+     * Its transactions (including the original deposit) are replayed afterwards
+     * 
+     * @param accountNumber The account number
+     * @param owner The account owner
+     * @param dateCreated The date the account was opened
+     * @param depositAmount The fixed deposit amount in cents
+     * @param interestRate The annual interest rate
+     * @param maturityDate The maturity date
+     * @return The restored account
+     */
+    public static FixedDepositAccount restore(String accountNumber, Person owner, LocalDate dateCreated,
+                                              long depositAmount, double interestRate, LocalDate maturityDate) {
+        return new FixedDepositAccount(accountNumber, owner, dateCreated, depositAmount, interestRate, maturityDate);
+    }
+    
+    @Override
+    public AccountType getAccountType() {
+        return AccountType.FIXED_DEPOSIT;
     }
     
     /**
      * Deposit money into the account
      * Fixed deposit accounts do not allow additional deposits
      * 
-     * @param amount The amount to deposit
+     * @param amount The amount to deposit in cents
      * @return false as additional deposits are not allowed
      */
     @Override
-    public boolean deposit(double amount) {
+    protected boolean applyDeposit(long amount) {
         // Fixed deposit accounts do not allow additional deposits
         return false;
     }
@@ -48,49 +83,51 @@ public class FixedDepositAccount extends Account {
      * Withdraw money from the account
      * Fixed deposit accounts only allow withdrawals after maturity
      * 
-     * @param amount The amount to withdraw
+     * @param amount The amount to withdraw in cents
      * @return true if the withdrawal was successful, false otherwise
      */
     @Override
-    public boolean withdraw(double amount) {
-        if (amount <= 0) {
+    protected boolean applyWithdraw(long amount) {
+        if (!canWithdraw(amount)) {
             return false;
         }
         
-        // Check if the account has matured
-        if (!isMatured()) {
-            return false; // Cannot withdraw before maturity
-        }
-        
-        // Allow withdrawal of the entire balance only
-        if (amount != balance) {
-            return false; // Can only withdraw the full amount
-        }
-        
         balance -= amount;
         addTransaction(amount, TransactionType.WITHDRAWAL, "Withdrawal at maturity");
         return true;
     }
     
+    @Override
+    protected boolean canDeposit(long amount) {
+        // Fixed deposit accounts do not allow additional deposits
+        return false;
+    }
+    
+    @Override
+    protected boolean canWithdraw(long amount) {
+        // Only the entire balance can be withdrawn, and only once the account has matured
+        return amount > 0 && amount == balance && isMatured();
+    }
+    
     /**
-     * Check if the fixed deposit has matured
+     * Check if the fixed deposit has matured, according to the BankClock
      * 
      * @return true if the account has matured, false otherwise
      */
     public boolean isMatured() {
-        return LocalDate.now().isEqual(maturityDate) || LocalDate.now().isAfter(maturityDate);
+        return BankClock.millis() >= maturityMillis;
     }
     
     /**
      * Calculate the maturity amount (principal + interest)
      * This is a simplified calculation
      * 
-     * @return The maturity amount
+     * @return The maturity amount in cents
      */
-    public double calculateMaturityAmount() {
-        // Simple interest calculation for demonstration
-        double termInYears = LocalDate.now().until(maturityDate).toTotalMonths() / 12.0;
-        double interest = depositAmount * interestRate * termInYears;
+    public long calculateMaturityAmount() {
+        // Simple interest calculation for demonstration, rounded to the cent
+        double termInYears = BankClock.today().until(maturityDate).toTotalMonths() / 12.0;
+        long interest = Money.applyRate(depositAmount, interestRate * termInYears, Money.INTEREST_ROUNDING);
         return depositAmount + interest;
     }
     
@@ -103,7 +140,7 @@ public class FixedDepositAccount extends Account {
         return interestRate;
     }
     
-    public double getDepositAmount() {
+    public long getDepositAmount() {
         return depositAmount;
     }
 }
\ No newline at end of file
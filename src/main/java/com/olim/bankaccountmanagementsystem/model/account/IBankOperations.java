@@ -12,25 +12,25 @@ public interface IBankOperations {
     /**
      * Deposit money into the account
      * 
-     * @param amount The amount to deposit
+     * @param amount The amount to deposit in cents
      * @return true if the deposit was successful, false otherwise
      */
-    boolean deposit(double amount);
+    boolean deposit(long amount);
     
     /**
      * Withdraw money from the account
      * 
-     * @param amount The amount to withdraw
+     * @param amount The amount to withdraw in cents
      * @return true if the withdrawal was successful, false otherwise
      */
-    boolean withdraw(double amount);
+    boolean withdraw(long amount);
     
     /**
      * Get the current balance of the account
      * 
-     * @return The current balance
+     * @return The current balance in cents
      */
-    double getBalance();
+    long getBalance();
     
     /**
      * Get the transaction history of the account
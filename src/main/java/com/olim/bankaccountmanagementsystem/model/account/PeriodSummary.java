@@ -0,0 +1,112 @@
+package com.olim.bankaccountmanagementsystem.model.account;
+
+import java.time.LocalDate;
+
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.util.Money;
+
+/**
+ * Totals of an account's transactions over a range of days
+ * Built from the account's rollups, without reading its transactions
+ */
+public class PeriodSummary {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final long openingBalance; // In cents
+    private final long closingBalance; // In cents
+    private final long[] totals; // Amount in cents by transaction type ordinal
+    private final long[] counts; // Number of transactions by transaction type ordinal
+
+    /**
+     * Constructor for a period summary
+     *
+     * @param from The first day
+     * @param to The last day (inclusive)
+     * @param openingBalance The balance before the period in cents
+     * @param closingBalance The balance after the period in cents
+     * @param totals The amount in cents of each transaction type, indexed by its ordinal
+     * @param counts The number of transactions of each type, indexed by its ordinal
+     */
+    public PeriodSummary(LocalDate from, LocalDate to, long openingBalance, long closingBalance,
+            long[] totals, long[] counts) {
+        this.from = from;
+        this.to = to;
+        this.openingBalance = openingBalance;
+        this.closingBalance = closingBalance;
+        this.totals = totals;
+        this.counts = counts;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public long getOpeningBalance() {
+        return openingBalance;
+    }
+
+    public long getClosingBalance() {
+        return closingBalance;
+    }
+
+    /**
+     * Get the total amount of one type of transaction in the period
+     *
+     * @param type The transaction type
+     * @return The total in cents
+     */
+    public long getTotal(TransactionType type) {
+        return totals[type.ordinal()];
+    }
+
+    /**
+     * Get the number of transactions of one type in the period
+     *
+     * @param type The transaction type
+     * @return The number of transactions
+     */
+    public long getCount(TransactionType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Get the total of all credits (deposits, interest, incoming transfers) in the period
+     *
+     * @return The total in cents
+     */
+    public long getTotalCredits() {
+        long total = 0;
+        for (TransactionType type : TransactionType.values()) {
+            if (type.isCredit()) {
+                total += totals[type.ordinal()];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Get the total of all debits (withdrawals, fees, outgoing transfers) in the period
+     *
+     * @return The total in cents
+     */
+    public long getTotalDebits() {
+        long total = 0;
+        for (TransactionType type : TransactionType.values()) {
+            if (!type.isCredit()) {
+                total += totals[type.ordinal()];
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PeriodSummary[%s to %s, opening=%s, credits=%s, debits=%s, closing=%s]",
+                from, to, Money.format(openingBalance), Money.format(getTotalCredits()),
+                Money.format(getTotalDebits()), Money.format(closingBalance));
+    }
+}
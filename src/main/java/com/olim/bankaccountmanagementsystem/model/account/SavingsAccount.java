@@ -1,14 +1,17 @@
 package com.olim.bankaccountmanagementsystem.model.account;
 
+import java.time.LocalDate;
+
 import com.olim.bankaccountmanagementsystem.model.Person;
 import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.util.Money;
 
 /**
  * Represents a savings account
  * This demonstrates inheritance and method overriding in Java OOP
  */
 public class SavingsAccount extends Account {
-    private double minBalance;
+    private long minBalance;
     private double interestRate;
     
     /**
@@ -16,28 +19,56 @@ public class SavingsAccount extends Account {
      * This demonstrates constructor chaining with super()
      * 
      * @param accountNumber The account number
-     * @param initialBalance The initial balance
+     * @param initialBalance The initial balance in cents
      * @param owner The account owner
-     * @param minBalance The minimum allowed balance
+     * @param minBalance The minimum allowed balance in cents
      * @param interestRate The annual interest rate (e.g., 0.05 for 5%)
      */
-    public SavingsAccount(String accountNumber, double initialBalance, Person owner,
-                         double minBalance, double interestRate) {
+    public SavingsAccount(String accountNumber, long initialBalance, Person owner,
+                         long minBalance, double interestRate) {
         super(accountNumber, initialBalance, owner);
         this.minBalance = minBalance;
         this.interestRate = interestRate;
     }
     
+    private SavingsAccount(String accountNumber, Person owner, LocalDate dateCreated,
+                           long minBalance, double interestRate) {
+        super(accountNumber, owner, dateCreated);
+        this.minBalance = minBalance;
+        this.interestRate = interestRate;
+    }
+    
+    /**
+     * Restore an existing savings account with a zero balance and empty history
+     * Its transactions are replayed afterwards with replayTransaction
+     * 
+     * @param accountNumber The account number
+     * @param owner The account owner
+     * @param dateCreated The date the account was opened
+     * @param minBalance The minimum allowed balance in cents
+     * @param interestRate The annual interest rate
+     * @return The restored account
+     */
+    public static SavingsAccount restore(String accountNumber, Person owner, LocalDate dateCreated,
+                                         long minBalance, double interestRate) {
+        return new SavingsAccount(accountNumber, owner, dateCreated, minBalance, interestRate);
+    }
+    
+    @Override
+    public AccountType getAccountType() {
+        return AccountType.SAVINGS;
+    }
+    
     /**
      * Deposit money into the account
      * This overrides the abstract method from Account
      * 
-     * @param amount The amount to deposit
+     * @param amount The amount to deposit in cents
      * @return true if the deposit was successful, false otherwise
      */
     @Override
-    public boolean deposit(double amount) {
-        if (amount <= 0) {
+    protected boolean applyDeposit(long amount) {
+        if (!canDeposit(amount)) {
             return false;
         }
         
@@ -51,44 +82,62 @@ public class SavingsAccount extends Account {
      * This overrides the abstract method from Account
      * Savings accounts do not allow the balance to go below the minimum balance
      * 
-     * @param amount The amount to withdraw
+     * @param amount The amount to withdraw in cents
      * @return true if the withdrawal was successful, false otherwise
      */
     @Override
-    public boolean withdraw(double amount) {
-        if (amount <= 0) {
+    protected boolean applyWithdraw(long amount) {
+        if (!canWithdraw(amount)) {
             return false;
         }
         
-        if (balance - amount < minBalance) {
-            return false; // Cannot withdraw below minimum balance
-        }
-        
         balance -= amount;
         addTransaction(amount, TransactionType.WITHDRAWAL, "Withdrawal");
         return true;
     }
     
+    @Override
+    protected boolean canDeposit(long amount) {
+        return amount > 0;
+    }
+    
+    @Override
+    protected boolean canWithdraw(long amount) {
+        // Cannot withdraw below minimum balance
+        return amount > 0 && balance - amount >= minBalance;
+    }
+    
     /**
      * Calculate the interest for one period
+     * Rounded to the cent with banker's rounding
      * 
-     * @return The interest amount
+     * @return The interest amount in cents
      */
-    public double calculateInterest() {
-        return balance * interestRate;
+    public long calculateInterest() {
+        return Money.applyRate(balance, interestRate, Money.INTEREST_ROUNDING);
     }
     
     /**
      * Apply the calculated interest to the account
+     * Calculation and posting happen under the account lock, so interest
+     * is always computed on the balance it is added to
+     * 
+     * @return The interest posted in cents
      */
-    public void applyInterest() {
-        double interestAmount = calculateInterest();
-        balance += interestAmount;
-        addTransaction(interestAmount, TransactionType.INTEREST_ADDED, "Interest applied");
+    public long applyInterest() {
+        lock.lock();
+        try {
+            long interestAmount = calculateInterest();
+            balance += interestAmount;
+            addTransaction(interestAmount, TransactionType.INTEREST_ADDED, "Interest applied");
+            return interestAmount;
+        } finally {
+            releaseLock();
+        }
     }
     
     // Getters for savings-specific properties
-    public double getMinBalance() {
+    public long getMinBalance() {
         return minBalance;
     }
     
@@ -0,0 +1,47 @@
+package com.olim.bankaccountmanagementsystem.model.account;
+
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+
+/**
+ * Listener notified of every transaction recorded on an account
+ * Used by the service layer to make account mutations durable
+ */
+public interface TransactionListener {
+    
+    /**
+     * Called before a transaction is appended to the account history,
+     * while the account lock is held
+     * If it throws, the transaction is not recorded and the balance change is undone
+     * 
+     * @param account The account the transaction belongs to
+     * @param transaction The transaction about to be recorded
+     * @return A commit ticket passed to {@link #awaitCommit(long)}, or 0 if there is nothing to wait for
+     */
+    long onTransaction(Account account, Transaction transaction);
+    
+    /**
+     * Called before either side of a transfer changes its account,
+     * while both account locks are held
+     * If it throws, neither account is changed
+     * Implementations should commit both sides as one unit; the default
+     * commits them as two separate transactions
+     * 
+     * @param source The debited account
+     * @param debit The TRANSFER_OUT transaction recorded on the source
+     * @param target The credited account
+     * @param credit The TRANSFER_IN transaction recorded on the target
+     * @return A commit ticket covering both sides, or 0 if there is nothing to wait for
+     */
+    default long onTransfer(Account source, Transaction debit, Account target, Transaction credit) {
+        return Math.max(onTransaction(source, debit), onTransaction(target, credit));
+    }
+    
+    /**
+     * Called after the account lock is released, before the operation returns
+     * Blocks until everything up to the ticket is committed
+     * 
+     * @param ticket The highest ticket returned while the lock was held
+     */
+    default void awaitCommit(long ticket) {
+    }
+}
@@ -1,59 +1,143 @@
 package com.olim.bankaccountmanagementsystem.model.transaction;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+import com.olim.bankaccountmanagementsystem.util.Money;
+import com.olim.bankaccountmanagementsystem.util.TransactionIdGenerator;
 
 /**
  * Represents a bank transaction
- * This class is used as a node in a linked list for transaction history
+ * Transactions are immutable once recorded and are kept in a TransactionHistory
+ * IDs are time-ordered 64-bit numbers, so they also sort transactions by creation
+ * The time is kept as epoch milliseconds read from the BankClock and is only
+ * turned into a LocalDateTime when it is displayed
  */
 public class Transaction {
-    private String id;
-    private double amount;
-    private LocalDateTime date;
+    private long id; // See TransactionIdGenerator
+    private long amount; // In cents
+    private long timestamp; // Epoch milliseconds, see BankClock
     private TransactionType type;
     private String description;
-    private Transaction next; // Reference to the next transaction in the linked list
+    private long linkedTransactionId; // The other side of a transfer, 0 otherwise
     
     /**
      * Constructor for a new transaction
      * 
-     * @param amount The transaction amount
+     * @param amount The transaction amount in cents
+     * @param type The type of transaction
+     * @param description A description of the transaction
+     */
+    public Transaction(long amount, TransactionType type, String description) {
+        this.id = TransactionIdGenerator.next(); // Generate a unique ID
+        this.amount = amount;
+        this.timestamp = BankClock.millis();
+        this.type = type;
+        this.description = description;
+    }
+    
+    /**
+     * Constructor for restoring a previously recorded transaction
+     * 
+     * @param id The original transaction ID
+     * @param amount The transaction amount in cents
+     * @param date The original date and time
+     * @param type The type of transaction
+     * @param description A description of the transaction
+     */
+    public Transaction(long id, long amount, LocalDateTime date, TransactionType type, String description) {
+        this(id, amount, date, type, description, 0);
+    }
+    
+    /**
+     * Constructor for restoring a previously recorded transaction that is one side of a transfer
+     * 
+     * @param id The original transaction ID
+     * @param amount The transaction amount in cents
+     * @param date The original date and time
+     * @param type The type of transaction
+     * @param description A description of the transaction
+     * @param linkedTransactionId The ID of the transaction on the other account, or 0
+     */
+    public Transaction(long id, long amount, LocalDateTime date, TransactionType type, String description,
+                       long linkedTransactionId) {
+        this(id, amount, BankClock.toEpochMillis(date), type, description, linkedTransactionId);
+    }
+    
+    /**
+     * Constructor for restoring a previously recorded transaction from its epoch timestamp
+     * 
+     * @param id The original transaction ID
+     * @param amount The transaction amount in cents
+     * @param timestamp The original time in epoch milliseconds
      * @param type The type of transaction
      * @param description A description of the transaction
+     * @param linkedTransactionId The ID of the transaction on the other account, or 0
      */
-    public Transaction(double amount, TransactionType type, String description) {
-        this.id = UUID.randomUUID().toString(); // Generate a unique ID
+    public Transaction(long id, long amount, long timestamp, TransactionType type, String description,
+                       long linkedTransactionId) {
+        this.id = id;
         this.amount = amount;
-        this.date = LocalDateTime.now();
+        this.timestamp = timestamp;
         this.type = type;
         this.description = description;
-        this.next = null;
+        this.linkedTransactionId = linkedTransactionId;
     }
     
     /**
      * Constructor with custom ID for testing purposes
      */
-    public Transaction(String id, double amount, TransactionType type, String description) {
+    public Transaction(long id, long amount, TransactionType type, String description) {
         this.id = id;
         this.amount = amount;
-        this.date = LocalDateTime.now();
+        this.timestamp = BankClock.millis();
         this.type = type;
         this.description = description;
-        this.next = null;
+    }
+    
+    /**
+     * Constructor for one side of a transfer
+     * Both sides are created with known IDs so that each can reference the other
+     * 
+     * @param id The transaction ID
+     * @param amount The transaction amount in cents
+     * @param type TRANSFER_IN or TRANSFER_OUT
+     * @param description A description of the transaction
+     * @param linkedTransactionId The ID of the transaction on the other account
+     */
+    public Transaction(long id, long amount, TransactionType type, String description, long linkedTransactionId) {
+        this(id, amount, BankClock.millis(), type, description, linkedTransactionId);
     }
     
     // Getters
-    public String getId() {
+    public long getId() {
         return id;
     }
     
-    public double getAmount() {
+    /**
+     * Get the ID as text, for display
+     * 
+     * @return The ID as 16 hexadecimal digits
+     */
+    public String getIdString() {
+        return TransactionIdGenerator.format(id);
+    }
+    
+    public long getAmount() {
         return amount;
     }
     
+    /**
+     * Get the date and time in the BankClock's time zone
+     * 
+     * @return The date and time, created on each call
+     */
     public LocalDateTime getDate() {
-        return date;
+        return BankClock.toLocalDateTime(timestamp);
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
     }
     
     public TransactionType getType() {
@@ -64,21 +148,16 @@ public class Transaction {
         return description;
     }
     
-    public Transaction getNext() {
-        return next;
-    }
-    
-    // Setter for next - only used within the linked list implementation
-    public void setNext(Transaction next) {
-        this.next = next;
+    public long getLinkedTransactionId() {
+        return linkedTransactionId;
     }
     
     @Override
     public String toString() {
-        return String.format("[%s] %s: $%.2f - %s", 
-                date.toString(), 
+        return String.format("[%s] %s: $%s - %s", 
+                getDate().toString(), 
                 type.getDescription(), 
-                amount, 
+                Money.format(amount), 
                 description);
     }
 }
\ No newline at end of file
@@ -1,88 +1,342 @@
 package com.olim.bankaccountmanagementsystem.model.transaction;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.olim.bankaccountmanagementsystem.metrics.TransactionHistoryLoadEvent;
+import com.olim.bankaccountmanagementsystem.util.BankClock;
 
 /**
- * Maintains a linked list of transactions for an account
- * This demonstrates linked list implementation in Java
+ * Maintains the transaction history of an account
+ * Transactions are kept in chronological order in fixed-size array segments,
+ * so appends are O(1) without copying old entries, any transaction can be read
+ * by index in O(1), and scans walk contiguous arrays instead of chasing pointers.
+ *
+ * Appends must be serialized by the caller (Account holds its lock while
+ * appending). Readers need no lock: an entry is stored before the volatile
+ * count that makes it visible is increased.
+ *
+ * Transactions are appended in time order, so time-range queries find the start
+ * and end of their window by binary search and cost O(log n + k) for k matches.
+ * Should the clock ever go backwards between two appends, the history notices
+ * and range queries fall back to scanning it.
+ *
+ * Every page copied out of the history emits a {@link TransactionHistoryLoadEvent}.
  */
-public class TransactionHistory {
-    private Transaction head; // Head of the linked list
-    private int count; // Number of transactions
-    
+public class TransactionHistory implements Iterable<Transaction> {
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT; // 1024 transactions per segment
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final int INITIAL_CAPACITY = 8; // Most accounts have few transactions
+
+    private volatile Transaction[][] segments; // Segment directory
+    private volatile int count; // Number of transactions
+    private volatile boolean timeOrdered = true; // Whether timestamps never decrease along the history
+
     /**
      * Constructor for a new empty transaction history
      */
     public TransactionHistory() {
-        this.head = null;
+        this.segments = new Transaction[1][];
         this.count = 0;
     }
-    
+
     /**
-     * Add a new transaction to the history (at the beginning of the list)
-     * This demonstrates insertion in a linked list
-     * 
+     * Add a new transaction to the end of the history
+     *
      * @param transaction The transaction to add
      */
     public void addTransaction(Transaction transaction) {
         if (transaction == null) {
             return;
         }
-        
-        // Insert at the beginning (most recent first)
-        if (head != null) {
-            transaction.setNext(head);
+
+        int index = count;
+        int segmentIndex = index >>> SEGMENT_SHIFT;
+        Transaction[][] directory = segments;
+
+        if (segmentIndex == directory.length) {
+            // Only the directory of references is copied, never the transactions' segments
+            directory = Arrays.copyOf(directory, directory.length * 2);
+            segments = directory;
+        }
+
+        Transaction[] segment = directory[segmentIndex];
+        int offset = index & SEGMENT_MASK;
+        if (segment == null) {
+            segment = new Transaction[segmentIndex == 0 ? INITIAL_CAPACITY : SEGMENT_SIZE];
+            directory[segmentIndex] = segment;
+        } else if (offset == segment.length) {
+            // The first segment starts small and doubles until it reaches the full segment size
+            segment = Arrays.copyOf(segment, segment.length * 2);
+            directory[segmentIndex] = segment;
+        }
+
+        if (index > 0 && timeOrdered && transaction.getTimestamp() < timestampAt(directory, index - 1)) {
+            timeOrdered = false;
+        }
+        segment[offset] = transaction;
+        count = index + 1; // Publishes the new entry to readers
+    }
+
+    /**
+     * Get a transaction by its position in chronological order
+     *
+     * @param index The position, 0 being the oldest transaction
+     * @return The transaction at that position
+     * @throws IndexOutOfBoundsException if the index is not below getCount()
+     */
+    public Transaction get(int index) {
+        int size = count;
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " transactions");
+        }
+        return segments[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+    }
+
+    /**
+     * Get a page of transactions, most recent first
+     *
+     * @param offset The number of most recent transactions to skip
+     * @param limit The maximum number of transactions to return
+     * @return The transactions of the page (empty if the offset is past the end)
+     */
+    public List<Transaction> getPage(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
         }
-        head = transaction;
 
-        count++;
+        TransactionHistoryLoadEvent event = TransactionHistoryLoadEvent.start();
+        int size = count;
+        Transaction[][] directory = segments;
+        int newest = size - 1 - offset;
+        int pageSize = Math.max(0, Math.min(limit, newest + 1));
+
+        List<Transaction> result = new ArrayList<>(pageSize);
+        for (int i = newest; i > newest - pageSize; i--) {
+            result.add(directory[i >>> SEGMENT_SHIFT][i & SEGMENT_MASK]);
+        }
+        event.finish(offset, limit, pageSize, size);
+        return result;
     }
-    
+
     /**
      * Get the last N transactions (most recent first)
-     * This demonstrates traversal of a linked list
-     * 
+     *
      * @param n The number of transactions to retrieve
      * @return A list of the last n transactions
      */
     public List<Transaction> getLastNTransactions(int n) {
-        List<Transaction> result = new ArrayList<>();
-        Transaction current = head;
-        int i = 0;
-        
-        while (current != null && i < n) {
-            result.add(current);
-            current = current.getNext();
-            i++;
-        }
-        return result;
+        return getPage(0, n);
     }
-    
+
     /**
-     * Get all transactions in the history
-     * 
+     * Get all transactions in the history (most recent first)
+     * Prefer {@link #newestFirst()} or {@link #getPage(int, int)} for large histories
+     *
      * @return A list of all transactions
      */
     public List<Transaction> getAllTransactions() {
         return getLastNTransactions(count);
     }
-    
+
+    /**
+     * Iterate over the transactions in chronological order without copying
+     * The iteration covers the transactions present when it starts
+     *
+     * @return An iterator from the oldest to the newest transaction
+     */
+    @Override
+    public Iterator<Transaction> iterator() {
+        return new SegmentIterator(0, count, 1);
+    }
+
+    /**
+     * Iterate over the transactions from newest to oldest without copying
+     * The iteration covers the transactions present when it starts
+     *
+     * @return An iterable from the newest to the oldest transaction
+     */
+    public Iterable<Transaction> newestFirst() {
+        return () -> {
+            int size = count;
+            return new SegmentIterator(size - 1, size, -1);
+        };
+    }
+
+    /**
+     * Get the transactions made in a time range, in chronological order, without copying
+     * The window is located by binary search over the timestamps
+     *
+     * @param fromMillis The start of the range in epoch milliseconds (inclusive)
+     * @param toMillis The end of the range in epoch milliseconds (exclusive)
+     * @return An iterable over the transactions in the range present when iteration starts
+     */
+    public Iterable<Transaction> between(long fromMillis, long toMillis) {
+        return () -> {
+            int size = count;
+            Transaction[][] directory = segments;
+            if (!timeOrdered) {
+                return new RangeScanIterator(new SegmentIterator(0, size, 1), fromMillis, toMillis);
+            }
+            int first = firstAtOrAfter(directory, size, fromMillis);
+            int end = Math.max(first, firstAtOrAfter(directory, size, toMillis));
+            return new SegmentIterator(first, end - first, 1);
+        };
+    }
+
+    /**
+     * Get the transactions made on a range of days, in chronological order, without copying
+     * Days are taken in the bank's time zone (see {@link BankClock})
+     *
+     * @param from The first day
+     * @param to The last day (inclusive)
+     * @return An iterable over the transactions made on those days
+     */
+    public Iterable<Transaction> between(LocalDate from, LocalDate to) {
+        return between(BankClock.startOfDayMillis(from), BankClock.startOfDayMillis(to.plusDays(1)));
+    }
+
+    /**
+     * Count the transactions made in a time range without visiting them
+     *
+     * @param fromMillis The start of the range in epoch milliseconds (inclusive)
+     * @param toMillis The end of the range in epoch milliseconds (exclusive)
+     * @return The number of transactions in the range
+     */
+    public int countBetween(long fromMillis, long toMillis) {
+        int size = count;
+        Transaction[][] directory = segments;
+        if (!timeOrdered) {
+            int matches = 0;
+            for (Transaction transaction : between(fromMillis, toMillis)) {
+                matches++;
+            }
+            return matches;
+        }
+        int first = firstAtOrAfter(directory, size, fromMillis);
+        return Math.max(0, firstAtOrAfter(directory, size, toMillis) - first);
+    }
+
     /**
      * Get the total number of transactions in the history
-     * 
+     *
      * @return The number of transactions
      */
     public int getCount() {
         return count;
     }
-    
+
     /**
      * Check if the history is empty
-     * 
+     *
      * @return true if there are no transactions, false otherwise
      */
     public boolean isEmpty() {
-        return head == null;
+        return count == 0;
+    }
+
+    /**
+     * Binary search for the first of the first size transactions made at or after a time
+     *
+     * @return Its index, or size if every transaction is older
+     */
+    private static int firstAtOrAfter(Transaction[][] directory, int size, long millis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestampAt(directory, middle) < millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long timestampAt(Transaction[][] directory, int index) {
+        return directory[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK].getTimestamp();
+    }
+
+    /**
+     * Iterator skipping the transactions outside a time range, for histories that are not time ordered
+     */
+    private static final class RangeScanIterator implements Iterator<Transaction> {
+        private final Iterator<Transaction> all;
+        private final long fromMillis;
+        private final long toMillis;
+        private Transaction next;
+
+        RangeScanIterator(Iterator<Transaction> all, long fromMillis, long toMillis) {
+            this.all = all;
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (all.hasNext()) {
+                Transaction candidate = all.next();
+                if (candidate.getTimestamp() >= fromMillis && candidate.getTimestamp() < toMillis) {
+                    next = candidate;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Transaction next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Transaction current = next;
+            advance();
+            return current;
+        }
+    }
+
+    /**
+     * Iterator walking the segments in either direction
+     */
+    private final class SegmentIterator implements Iterator<Transaction> {
+        private final Transaction[][] directory;
+        private final int step;
+        private int remaining;
+        private int next;
+
+        SegmentIterator(int first, int size, int step) {
+            // Reading the directory after the count guarantees it holds all counted entries
+            this.directory = segments;
+            this.next = first;
+            this.remaining = size;
+            this.step = step;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public Transaction next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            Transaction transaction = directory[next >>> SEGMENT_SHIFT][next & SEGMENT_MASK];
+            next += step;
+            remaining--;
+            return transaction;
+        }
     }
-}
\ No newline at end of file
+}
@@ -3,20 +3,56 @@ package com.olim.bankaccountmanagementsystem.model.transaction;
 /**
  * Enum defining the types of transactions that can be performed
  * This demonstrates enum usage in Java
+ * The code identifies the type in persisted records
  */
 public enum TransactionType {
-    DEPOSIT("Deposit"),
-    WITHDRAWAL("Withdrawal"),
-    INTEREST_ADDED("Interest Added"),
-    FEE_CHARGED("Fee Charged");
+    DEPOSIT("Deposit", true, (byte) 1),
+    WITHDRAWAL("Withdrawal", false, (byte) 2),
+    INTEREST_ADDED("Interest Added", true, (byte) 3),
+    FEE_CHARGED("Fee Charged", false, (byte) 4),
+    TRANSFER_IN("Transfer In", true, (byte) 5),
+    TRANSFER_OUT("Transfer Out", false, (byte) 6);
     
     private final String description;
+    private final boolean credit;
+    private final byte code;
     
-    TransactionType(String description) {
+    TransactionType(String description, boolean credit, byte code) {
         this.description = description;
+        this.credit = credit;
+        this.code = code;
     }
     
     public String getDescription() {
         return description;
     }
+    
+    /**
+     * Check if this type of transaction adds money to the account
+     * 
+     * @return true for credits, false for debits
+     */
+    public boolean isCredit() {
+        return credit;
+    }
+    
+    public byte getCode() {
+        return code;
+    }
+    
+    /**
+     * Look up a transaction type by its persisted code
+     * 
+     * @param code The persisted code
+     * @return The matching transaction type
+     * @throws IllegalArgumentException if no type has this code
+     */
+    public static TransactionType fromCode(byte code) {
+        for (TransactionType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown transaction type code: " + code);
+    }
 }
\ No newline at end of file
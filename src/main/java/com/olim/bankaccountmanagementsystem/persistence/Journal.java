@@ -0,0 +1,479 @@
+package com.olim.bankaccountmanagementsystem.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only write-ahead journal split into segment files
+ *
+ * Every record gets a sequence number and is framed as
+ * [int length][int crc32c][long sequence][byte type][payload],
+ * where length and checksum cover the sequence, type and payload.
+ *
+ * Appends only copy the record into an in-memory buffer. sync() makes it durable
+ * with group commit: the first waiting thread writes and forces everything appended
+ * so far in one go, while threads arriving meanwhile wait for that flush or the next one.
+ * One fsync therefore covers many concurrent operations.
+ */
+public class Journal implements Closeable {
+    /** Default size after which a new segment file is started */
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES; // length + checksum
+    private static final int INITIAL_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * Writes the payload of a record into the journal buffer
+     */
+    @FunctionalInterface
+    public interface PayloadWriter {
+        void write(ByteBuffer buffer);
+    }
+
+    /**
+     * Receives every intact record when the journal is opened
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void handle(long sequence, byte type, ByteBuffer payload) throws IOException;
+    }
+
+    private final Path directory;
+    private final long segmentSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushCompleted = lock.newCondition();
+    private final CRC32C checksum = new CRC32C(); // Guarded by lock
+
+    // Guarded by lock
+    private ByteBuffer appendBuffer;
+    private ByteBuffer spareBuffer;
+    private long lastSequence;
+    private boolean flushInProgress;
+    private boolean closed;
+    private IOException failure; // First write failure; the journal refuses further work after it
+
+    // Only touched by the thread performing a flush (or under lock when no flush runs)
+    private FileChannel channel;
+    private long segmentFirstSequence;
+
+    private volatile long durableSequence;
+
+    private Journal(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.appendBuffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+        this.spareBuffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    }
+
+    /**
+     * Open the journal in a directory, replaying every intact record first
+     * A torn record at the end of the last segment (from a crash mid-write) is cut off
+     *
+     * @param directory The journal directory (created if missing)
+     * @param handler Receives every intact record in sequence order
+     * @return The journal, ready for appends
+     * @throws IOException if the journal cannot be read or is corrupt before its tail
+     */
+    public static Journal open(Path directory, RecordHandler handler) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE, 0, handler);
+    }
+
+    /**
+     * Open the journal in a directory with a custom segment size
+     *
+     * @param directory The journal directory (created if missing)
+     * @param segmentSize The size after which a new segment file is started
+     * @param handler Receives every intact record in sequence order
+     * @return The journal, ready for appends
+     * @throws IOException if the journal cannot be read or is corrupt before its tail
+     */
+    public static Journal open(Path directory, long segmentSize, RecordHandler handler) throws IOException {
+        return open(directory, segmentSize, 0, handler);
+    }
+
+    /**
+     * Open the journal in a directory, replaying only the records after a snapshot
+     * The journal must hold every record from the one right after the snapshot onwards;
+     * a gap means records were lost, and opening fails rather than silently dropping them
+     *
+     * @param directory The journal directory (created if missing)
+     * @param segmentSize The size after which a new segment file is started
+     * @param snapshotSequence The last sequence number reflected in the loaded snapshot, 0 if none
+     * @param handler Receives every intact record after the snapshot in sequence order
+     * @return The journal, ready for appends
+     * @throws IOException if the journal cannot be read, is corrupt before its tail or misses records
+     */
+    public static Journal open(Path directory, long segmentSize, long snapshotSequence,
+                               RecordHandler handler) throws IOException {
+        Files.createDirectories(directory);
+        Journal journal = new Journal(directory, segmentSize);
+        journal.recover(handler, snapshotSequence);
+        return journal;
+    }
+
+    /**
+     * Append a record to the journal buffer
+     * The record is not durable until {@link #sync(long)} returns for its sequence number
+     *
+     * @param type The record type
+     * @param writer Writes the record payload
+     * @return The sequence number assigned to the record
+     * @throws RuntimeException whatever the writer throws; nothing is appended in that case
+     */
+    public long append(byte type, PayloadWriter writer) {
+        lock.lock();
+        try {
+            if (closed || failure != null) {
+                throw new IllegalStateException("Journal is closed");
+            }
+
+            long sequence = lastSequence + 1;
+            while (true) {
+                int start = appendBuffer.position();
+                if (appendBuffer.remaining() < HEADER_SIZE) {
+                    // Not even room for the header, which position() would reject rather than overflow
+                    appendBuffer = grow(appendBuffer);
+                    continue;
+                }
+                try {
+                    appendBuffer.position(start + HEADER_SIZE);
+                    appendBuffer.putLong(sequence);
+                    appendBuffer.put(type);
+                    writer.write(appendBuffer);
+
+                    int end = appendBuffer.position();
+                    int length = end - start - HEADER_SIZE;
+                    checksum.reset();
+                    checksum.update(appendBuffer.slice(start + HEADER_SIZE, length));
+                    appendBuffer.putInt(start, length);
+                    appendBuffer.putInt(start + Integer.BYTES, (int) checksum.getValue());
+                    break;
+                } catch (BufferOverflowException e) {
+                    // Record did not fit: discard the partial record, grow the buffer and retry
+                    appendBuffer.position(start);
+                    appendBuffer = grow(appendBuffer);
+                } catch (RuntimeException e) {
+                    // The payload writer failed: discard the partial record so it is never flushed
+                    appendBuffer.position(start);
+                    throw e;
+                }
+            }
+            lastSequence = sequence;
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until every record up to the given sequence number is on disk
+     *
+     * @param sequence The sequence number to wait for
+     * @throws IOException if writing or forcing the journal fails
+     */
+    public void sync(long sequence) throws IOException {
+        if (durableSequence >= sequence) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (flushInProgress) {
+                    // Another thread is flushing; it or the next flush will cover this sequence
+                    flushCompleted.awaitUninterruptibly();
+                    continue;
+                }
+                if (failure != null) {
+                    throw new IOException("Journal failed earlier, records may not be durable", failure);
+                }
+                if (closed) {
+                    throw new IOException("Journal is closed");
+                }
+                flushLocked();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the sequence number of the last appended record
+     *
+     * @return The last sequence number, 0 if nothing was ever appended
+     */
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Make everything appended so far durable and start a new segment
+     * Records appended afterwards go to the new segment, so all older segments
+     * can be deleted once a snapshot covers them
+     *
+     * @return The sequence number of the last record in the older segments
+     * @throws IOException if flushing or creating the segment fails
+     */
+    public long roll() throws IOException {
+        lock.lock();
+        try {
+            while (flushInProgress) {
+                flushCompleted.awaitUninterruptibly();
+            }
+            if (failure != null || closed) {
+                throw new IOException("Journal is closed");
+            }
+            if (durableSequence < lastSequence) {
+                flushLocked();
+                while (flushInProgress) {
+                    flushCompleted.awaitUninterruptibly();
+                }
+            }
+            // No flush is running and we hold the lock, so the channel is ours
+            long rolledUpTo = durableSequence;
+            if (segmentFirstSequence <= rolledUpTo) {
+                startSegment(rolledUpTo + 1);
+            }
+            return rolledUpTo;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Delete the segments whose records all have a sequence number up to the given one
+     * The active segment is never deleted
+     *
+     * @param sequence The highest sequence number that is no longer needed
+     * @return The number of deleted segments
+     * @throws IOException if a segment cannot be deleted
+     */
+    public int deleteSegmentsUpTo(long sequence) throws IOException {
+        List<Path> segments = listSegments();
+        int deleted = 0;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            // A segment ends right before the first record of its successor
+            long lastInSegment = firstSequenceOf(segments.get(i + 1)) - 1;
+            if (lastInSegment > sequence) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    /**
+     * Flush everything appended so far and close the current segment
+     *
+     * @throws IOException if the final flush fails
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            while (flushInProgress) {
+                flushCompleted.awaitUninterruptibly();
+            }
+            try {
+                if (durableSequence < lastSequence && failure == null) {
+                    flushLocked();
+                }
+            } finally {
+                closed = true;
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write and force the append buffer
+     * Called with the lock held; the lock is released during the disk I/O
+     * so that other threads can keep appending into the swapped-in spare buffer
+     */
+    private void flushLocked() throws IOException {
+        flushInProgress = true;
+        ByteBuffer toWrite = appendBuffer;
+        appendBuffer = spareBuffer;
+        spareBuffer = null;
+        long flushedUpTo = lastSequence;
+        lock.unlock();
+
+        IOException writeFailure = null;
+        try {
+            toWrite.flip();
+            while (toWrite.hasRemaining()) {
+                channel.write(toWrite);
+            }
+            channel.force(false);
+            if (channel.position() >= segmentSize) {
+                startSegment(flushedUpTo + 1);
+            }
+        } catch (IOException e) {
+            writeFailure = e;
+        } finally {
+            lock.lock();
+            toWrite.clear();
+            spareBuffer = toWrite;
+            flushInProgress = false;
+            if (writeFailure == null) {
+                durableSequence = flushedUpTo;
+            } else {
+                failure = writeFailure;
+            }
+            flushCompleted.signalAll();
+        }
+        if (writeFailure != null) {
+            throw writeFailure;
+        }
+    }
+
+    /**
+     * Close the current segment and start a new one
+     *
+     * @param firstSequence The sequence number of the first record in the new segment
+     */
+    private void startSegment(long firstSequence) throws IOException {
+        channel.close();
+        channel = openSegment(firstSequence);
+        segmentFirstSequence = firstSequence;
+    }
+
+    private FileChannel openSegment(long firstSequence) throws IOException {
+        return FileChannel.open(segmentPath(firstSequence),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+    }
+
+    /**
+     * Replay all segments after the snapshot and position the journal after the last intact record
+     */
+    private void recover(RecordHandler handler, long snapshotSequence) throws IOException {
+        List<Path> segments = listSegments();
+
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            boolean lastSegment = i == segments.size() - 1;
+            long validLength = replaySegment(segment, handler, lastSegment, snapshotSequence);
+
+            if (lastSegment) {
+                channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.READ);
+                channel.truncate(validLength);
+                channel.position(validLength);
+                segmentFirstSequence = firstSequenceOf(segment);
+                // The last segment may be empty, just started by a roll, so numbering resumes from its name
+                lastSequence = Math.max(lastSequence, segmentFirstSequence - 1);
+            }
+        }
+        // Never hand out sequence numbers the snapshot already covers
+        lastSequence = Math.max(lastSequence, snapshotSequence);
+
+        if (channel == null) {
+            channel = openSegment(lastSequence + 1);
+            segmentFirstSequence = lastSequence + 1;
+        }
+        durableSequence = lastSequence;
+    }
+
+    /**
+     * Replay the records of one segment
+     *
+     * @return The length of the intact prefix of the segment
+     */
+    private long replaySegment(Path segment, RecordHandler handler, boolean lastSegment,
+                               long snapshotSequence) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer data = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            CRC32C crc = new CRC32C();
+
+            while (data.remaining() >= HEADER_SIZE) {
+                int start = data.position();
+                int length = data.getInt(start);
+                int storedChecksum = data.getInt(start + Integer.BYTES);
+
+                boolean intact = length >= Long.BYTES + 1 && length <= data.remaining() - HEADER_SIZE;
+                if (intact) {
+                    crc.reset();
+                    crc.update(data.slice(start + HEADER_SIZE, length));
+                    intact = (int) crc.getValue() == storedChecksum;
+                }
+                if (!intact) {
+                    if (!lastSegment) {
+                        throw new IOException("Corrupt journal record in " + segment + " at offset " + start);
+                    }
+                    return start; // Torn write at the tail: everything from here is discarded
+                }
+
+                long sequence = data.getLong(start + HEADER_SIZE);
+                byte type = data.get(start + HEADER_SIZE + Long.BYTES);
+                int payloadOffset = start + HEADER_SIZE + Long.BYTES + 1;
+                if (sequence > snapshotSequence) {
+                    // Records at or below the snapshot are already in it, the rest must follow on without a gap
+                    long expected = Math.max(lastSequence, snapshotSequence) + 1;
+                    if (sequence != expected) {
+                        throw new IOException("Journal is missing records " + expected + " to " + (sequence - 1)
+                                + " before " + segment);
+                    }
+                    ByteBuffer payload = data.slice(payloadOffset, length - Long.BYTES - 1);
+                    handler.handle(sequence, type, payload);
+                }
+
+                lastSequence = sequence;
+                data.position(start + HEADER_SIZE + length);
+            }
+            return data.position();
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().forEach(segments::add);
+        }
+        return segments;
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private Path segmentPath(long firstSequence) {
+        // Zero padded so that lexical order is sequence order
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+}
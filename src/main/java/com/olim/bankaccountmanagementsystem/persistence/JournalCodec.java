@@ -0,0 +1,98 @@
+package com.olim.bankaccountmanagementsystem.persistence;
+
+import java.nio.ByteBuffer;
+
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+
+/**
+ * Encodes and decodes the payloads of journal records
+ * This demonstrates utility classes and static methods in Java
+ *
+ * Accounts and transactions are written as {@link RecordCodec} records. Transactions
+ * carry their linked transaction IDs, so both sides of a transfer replay linked.
+ */
+public final class JournalCodec {
+    /** An account was opened; payload holds its static attributes */
+    public static final byte ACCOUNT_OPENED = 1;
+
+    /** A transaction was recorded on an account */
+    public static final byte TRANSACTION = 2;
+
+    /** Money moved between two accounts; payload holds both sides so they replay together */
+    public static final byte TRANSFER = 3;
+
+    // Private constructor to prevent instantiation
+    private JournalCodec() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Write the attributes needed to restore an account (balance comes from its transactions)
+     *
+     * @param buffer The buffer to write to
+     * @param account The opened account
+     */
+    public static void encodeAccountOpened(ByteBuffer buffer, Account account) {
+        RecordCodec.encodeAccount(buffer, account, 0);
+    }
+
+    /**
+     * Restore an account from an ACCOUNT_OPENED payload
+     * The account starts with a zero balance and an empty history
+     *
+     * @param buffer The payload
+     * @return The restored account
+     */
+    public static Account decodeAccountOpened(ByteBuffer buffer) {
+        return RecordCodec.decodeAccount(buffer);
+    }
+
+    /**
+     * Write a transaction together with the number of the account it belongs to
+     *
+     * @param buffer The buffer to write to
+     * @param accountNumber The account number
+     * @param transaction The transaction
+     */
+    public static void encodeTransaction(ByteBuffer buffer, String accountNumber, Transaction transaction) {
+        RecordCodec.putString(buffer, accountNumber);
+        RecordCodec.encodeTransaction(buffer, transaction);
+    }
+
+    /**
+     * Read the account number of a transaction or transfer payload
+     *
+     * @param buffer The payload, positioned at its start or after the first side of a transfer
+     * @return The account number
+     */
+    public static String decodeTransactionAccount(ByteBuffer buffer) {
+        return RecordCodec.getString(buffer);
+    }
+
+    /**
+     * Read the transaction of a transaction or transfer payload
+     *
+     * @param buffer The payload, positioned after the account number
+     * @return The restored transaction
+     */
+    public static Transaction decodeTransaction(ByteBuffer buffer) {
+        return RecordCodec.decodeTransaction(buffer);
+    }
+
+    /**
+     * Write both sides of a transfer, as read back by {@link #decodeTransactionAccount(ByteBuffer)}
+     * and {@link #decodeTransaction(ByteBuffer)} for the debit and then for the credit
+     *
+     * @param buffer The buffer to write to
+     * @param sourceNumber The number of the debited account
+     * @param debit The TRANSFER_OUT transaction
+     * @param targetNumber The number of the credited account
+     * @param credit The TRANSFER_IN transaction
+     */
+    public static void encodeTransfer(ByteBuffer buffer, String sourceNumber, Transaction debit,
+                                      String targetNumber, Transaction credit) {
+        encodeTransaction(buffer, sourceNumber, debit);
+        encodeTransaction(buffer, targetNumber, credit);
+    }
+}
@@ -0,0 +1,329 @@
+package com.olim.bankaccountmanagementsystem.persistence;
+
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.olim.bankaccountmanagementsystem.metrics.BankMetrics;
+import com.olim.bankaccountmanagementsystem.model.account.AccountType;
+import com.olim.bankaccountmanagementsystem.model.account.CurrentAccount;
+import com.olim.bankaccountmanagementsystem.model.account.IBankOperations;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionHistory;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+import com.olim.bankaccountmanagementsystem.util.Money;
+import com.olim.bankaccountmanagementsystem.util.TransactionIdGenerator;
+
+/**
+ * View of one account in a {@link MappedAccountStore}
+ * This demonstrates the flyweight pattern in Java
+ *
+ * A view holds nothing but its store and record index; every call reads or writes
+ * the mapped record, so views can be created for each use and dropped right away.
+ * Operations follow the rules of the heap account of the same type: savings accounts
+ * keep their minimum balance, current accounts may go into overdraft up to their limit
+ * and pay the overdraft fee, and fixed deposits take no deposits and can only be
+ * withdrawn in full once matured.
+ */
+public final class MappedAccount implements IBankOperations {
+    private final MappedAccountStore store;
+    private final int index;
+
+    MappedAccount(MappedAccountStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    /**
+     * Get the index of this account's record in the store
+     *
+     * @return The record index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getAccountNumber() {
+        return store.accountNumber(index);
+    }
+
+    public AccountType getAccountType() {
+        return store.type(index);
+    }
+
+    /**
+     * Get the owner's key in the caller's customer records
+     *
+     * @return The owner reference given when the account was opened
+     */
+    public long getOwnerReference() {
+        return store.ownerReference(index);
+    }
+
+    public LocalDate getDateCreated() {
+        return store.dateCreated(index);
+    }
+
+    @Override
+    public long getBalance() {
+        return store.balance(index);
+    }
+
+    // Getters for type-specific properties
+    public long getMinBalance() {
+        requireType(AccountType.SAVINGS);
+        return store.parameter(index);
+    }
+
+    public long getOverdraftLimit() {
+        requireType(AccountType.CURRENT);
+        return store.parameter(index);
+    }
+
+    public long getDepositAmount() {
+        requireType(AccountType.FIXED_DEPOSIT);
+        return store.parameter(index);
+    }
+
+    public double getInterestRate() {
+        if (getAccountType() == AccountType.CURRENT) {
+            throw new UnsupportedOperationException("Current accounts earn no interest");
+        }
+        return store.rate(index);
+    }
+
+    public LocalDate getMaturityDate() {
+        requireType(AccountType.FIXED_DEPOSIT);
+        return LocalDate.ofEpochDay(store.maturityDay(index));
+    }
+
+    /**
+     * Check if a fixed deposit has matured, according to the BankClock
+     *
+     * @return true if the account has matured, false otherwise
+     */
+    public boolean isMatured() {
+        requireType(AccountType.FIXED_DEPOSIT);
+        return BankClock.today().toEpochDay() >= store.maturityDay(index);
+    }
+
+    /**
+     * Get the number of transactions recorded on this account
+     *
+     * @return The number of transactions
+     */
+    public long getTransactionCount() {
+        ReentrantLock lock = store.lockFor(index);
+        lock.lock();
+        try {
+            return store.transactionCount(index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the transaction history of the account
+     * The history is read from the store's transaction log into a new object, so
+     * transactions made afterwards are not added to it; call again to see them
+     *
+     * @return The transaction history, oldest first
+     */
+    @Override
+    public TransactionHistory getTransactionHistory() {
+        ReentrantLock lock = store.lockFor(index);
+        lock.lock();
+        try {
+            return store.history(index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deposit money into the account
+     * The balance check, update and transaction record happen atomically
+     *
+     * @param amount The amount to deposit in cents
+     * @return true if the deposit was successful, false otherwise
+     */
+    @Override
+    public boolean deposit(long amount) {
+        long start = System.nanoTime();
+        AccountType type = getAccountType();
+        ReentrantLock lock = store.lockFor(index);
+        lock.lock();
+        try {
+            if (!canDeposit(type, amount)) {
+                return false;
+            }
+            store.post(index, amount, TransactionType.DEPOSIT, MappedAccountStore.NOTE_NONE,
+                    MappedAccountStore.NONE, TransactionIdGenerator.next(), 0);
+            return true;
+        } finally {
+            lock.unlock();
+            BankMetrics.recordDeposit(type, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Withdraw money from the account
+     * The balance check, update and transaction record happen atomically
+     *
+     * @param amount The amount to withdraw in cents
+     * @return true if the withdrawal was successful, false otherwise
+     */
+    @Override
+    public boolean withdraw(long amount) {
+        long start = System.nanoTime();
+        AccountType type = getAccountType();
+        ReentrantLock lock = store.lockFor(index);
+        lock.lock();
+        try {
+            if (!canWithdraw(type, amount)) {
+                return false;
+            }
+            byte note = type == AccountType.FIXED_DEPOSIT ? MappedAccountStore.NOTE_AT_MATURITY
+                    : MappedAccountStore.NOTE_NONE;
+            store.post(index, amount, TransactionType.WITHDRAWAL, note, MappedAccountStore.NONE,
+                    TransactionIdGenerator.next(), 0);
+            onDebited(type);
+            return true;
+        } finally {
+            lock.unlock();
+            BankMetrics.recordWithdraw(type, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Transfer money from this account to another one in the same store
+     * Both lock stripes are held for the whole transfer and taken in stripe order,
+     * so the debit and the credit happen atomically and opposite transfers cannot deadlock
+     *
+     * @param target The account to credit
+     * @param amount The amount to transfer in cents
+     * @return true if the transfer was made, false if either account's rules reject it
+     * @throws IllegalArgumentException if the target is this account or belongs to another store
+     */
+    public boolean transferTo(MappedAccount target, long amount) {
+        if (target.store != store) {
+            throw new IllegalArgumentException("Cannot transfer to an account of another store");
+        }
+        if (target.index == index) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+
+        long start = System.nanoTime();
+        AccountType type = getAccountType();
+        AccountType targetType = target.getAccountType();
+        boolean sourceFirst = MappedAccountStore.stripeOf(index) <= MappedAccountStore.stripeOf(target.index);
+        ReentrantLock first = store.lockFor(sourceFirst ? index : target.index);
+        ReentrantLock second = store.lockFor(sourceFirst ? target.index : index);
+        first.lock();
+        try {
+            // Two accounts can share a stripe, and then one lock covers both
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                if (!canWithdraw(type, amount) || !target.canDeposit(targetType, amount)) {
+                    return false;
+                }
+
+                long debitId = TransactionIdGenerator.next();
+                long creditId = TransactionIdGenerator.next();
+                store.post(index, amount, TransactionType.TRANSFER_OUT, MappedAccountStore.NOTE_NONE,
+                        target.index, debitId, creditId);
+                store.post(target.index, amount, TransactionType.TRANSFER_IN, MappedAccountStore.NOTE_NONE,
+                        index, creditId, debitId);
+                onDebited(type);
+                return true;
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+            BankMetrics.recordTransfer(type, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Post one period of interest to a savings account
+     * Calculation and posting happen under the account's lock, rounded with banker's rounding
+     *
+     * @return The interest posted in cents
+     */
+    public long applyInterest() {
+        requireType(AccountType.SAVINGS);
+        ReentrantLock lock = store.lockFor(index);
+        lock.lock();
+        try {
+            long interest = Money.applyRate(store.balance(index), store.rate(index), Money.INTEREST_ROUNDING);
+            store.post(index, interest, TransactionType.INTEREST_ADDED, MappedAccountStore.NOTE_NONE,
+                    MappedAccountStore.NONE, TransactionIdGenerator.next(), 0);
+            return interest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean canDeposit(AccountType type, long amount) {
+        // Fixed deposit accounts do not allow additional deposits
+        return amount > 0 && type != AccountType.FIXED_DEPOSIT;
+    }
+
+    private boolean canWithdraw(AccountType type, long amount) {
+        if (amount <= 0) {
+            return false;
+        }
+        long balance = store.balance(index);
+        switch (type) {
+            case SAVINGS:
+                return balance - amount >= store.parameter(index);
+            case CURRENT:
+                return balance - amount >= -store.parameter(index);
+            case FIXED_DEPOSIT:
+                // Only the entire balance can be withdrawn, and only once the account has matured
+                return amount == balance && isMatured();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Charge the overdraft fee if money leaving a current account overdrew it
+     */
+    private void onDebited(AccountType type) {
+        if (type == AccountType.CURRENT && store.balance(index) < 0) {
+            store.post(index, CurrentAccount.OVERDRAFT_FEE, TransactionType.FEE_CHARGED,
+                    MappedAccountStore.NOTE_NONE, MappedAccountStore.NONE, TransactionIdGenerator.next(), 0);
+        }
+    }
+
+    private void requireType(AccountType type) {
+        if (getAccountType() != type) {
+            throw new UnsupportedOperationException(getAccountNumber() + " is not a " + type.getDescription());
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof MappedAccount)) {
+            return false;
+        }
+        MappedAccount view = (MappedAccount) other;
+        return view.store == store && view.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MappedAccount[accountNumber=%s, balance=%s, owner=%d]",
+                getAccountNumber(), Money.format(getBalance()), getOwnerReference());
+    }
+}
@@ -0,0 +1,578 @@
+package com.olim.bankaccountmanagementsystem.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.olim.bankaccountmanagementsystem.metrics.BankMetrics;
+import com.olim.bankaccountmanagementsystem.model.account.AccountType;
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionHistory;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.util.AccountNumberGenerator;
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+import com.olim.bankaccountmanagementsystem.util.TransactionIdGenerator;
+
+/**
+ * Off-heap store for tens of millions of accounts
+ *
+ * Every account is a fixed-width record of 64 bytes in memory-mapped segment files:
+ * [long balance][long lastTransaction][long transactionCount][long ownerReference]
+ * [long parameter][long rate][int createdDay][int maturityDay][byte type], where the
+ * parameter is the minimum balance, overdraft limit or deposit amount depending on the
+ * type, rates are in billionths and days are epoch days. Transactions are fixed-width
+ * records in a second set of segments, each pointing at the previous transaction of
+ * the same account, so an account's history is a chain through the log that ends at
+ * its record. Neither costs any heap, and the garbage collector never scans them.
+ *
+ * Accounts are used through {@link MappedAccount} views. Account numbers have the
+ * usual format with the record index as their sequence number, so finding an account
+ * by number is a parse rather than a search. The owner is a reference into the
+ * caller's own customer records; the store does not keep Person objects.
+ *
+ * Records are guarded by a fixed array of striped locks instead of a lock per account.
+ * Balances are read without a lock, like the volatile balance of a heap account.
+ *
+ * Writes go straight to the mapped pages, so the operating system keeps them if the
+ * JVM dies; {@link #flush()} forces them to disk. There is no journal: a machine crash
+ * loses what was written since the last flush, and a JVM crash can tear the one
+ * operation in flight.
+ */
+public class MappedAccountStore implements Closeable {
+    /** Size of an account record in bytes */
+    public static final int ACCOUNT_RECORD_SIZE = 64;
+
+    /** Size of a transaction record in bytes */
+    public static final int TRANSACTION_RECORD_SIZE = 64;
+
+    private static final int MAGIC = 0x4241434d; // "BACM"
+    private static final int VERSION = 1;
+    private static final String META_FILE = "store.meta";
+    private static final String ACCOUNT_PREFIX = "accounts-";
+    private static final String TRANSACTION_PREFIX = "transactions-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int SEGMENT_SHIFT = 20; // 1Mi records, 64 MiB per segment file
+    private static final int SEGMENT_RECORDS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_RECORDS - 1;
+    private static final int LOCK_STRIPES = 4096; // Power of two
+    private static final double RATE_SCALE = 1_000_000_000d;
+
+    // Account record layout
+    private static final int BALANCE = 0;
+    private static final int LAST_TRANSACTION = 8; // Slot + 1 of the latest transaction, 0 if none
+    private static final int TRANSACTION_COUNT = 16;
+    private static final int OWNER = 24;
+    private static final int PARAMETER = 32;
+    private static final int RATE = 40;
+    private static final int CREATED_DAY = 48;
+    private static final int MATURITY_DAY = 52;
+    private static final int TYPE = 56; // Account type code, 0 for a record never written; padded to a long
+
+    // Transaction record layout
+    private static final int ID = 0;
+    private static final int AMOUNT = 8;
+    private static final int TIMESTAMP = 16;
+    private static final int LINKED_ID = 24;
+    private static final int PREVIOUS = 32; // Slot + 1 of the account's previous transaction, 0 if none
+    private static final int ACCOUNT = 40;
+    private static final int COUNTERPARTY = 44; // Index of the other account of a transfer
+    private static final int TRANSACTION_TYPE = 48;
+    private static final int NOTE = 49;
+
+    /** No counterparty account */
+    static final int NONE = -1;
+
+    // Notes telling apart transactions of the same type, so descriptions need not be stored
+    static final byte NOTE_NONE = 0;
+    static final byte NOTE_INITIAL_DEPOSIT = 1;
+    static final byte NOTE_AT_MATURITY = 2;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final Object growthLock = new Object(); // Guards mapping new transaction segments
+    private final AtomicLong transactionCount;
+    private volatile MappedByteBuffer[] accountSegments;
+    private volatile MappedByteBuffer[] transactionSegments;
+    private volatile int accountCount; // Written only while holding this store's monitor
+
+    private MappedAccountStore(Path directory, MappedByteBuffer[] accountSegments,
+                               MappedByteBuffer[] transactionSegments) {
+        this.directory = directory;
+        this.accountSegments = accountSegments;
+        this.transactionSegments = transactionSegments;
+        this.accountCount = (int) recoverCount(accountSegments, ACCOUNT_RECORD_SIZE, TYPE);
+        this.transactionCount = new AtomicLong(recoverCount(transactionSegments, TRANSACTION_RECORD_SIZE, ID));
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        observeRecentIds();
+    }
+
+    /**
+     * Make sure new transaction IDs are above every ID already in the store
+     * IDs are drawn under a stripe lock (or the store monitor when opening an account)
+     * before a slot is taken, so the last slot need not hold the highest ID. Only a
+     * poster that drew its IDs before the highest one, but took its slots after it, can
+     * land behind it; each lock holder posts at most two transactions at once, so the
+     * highest ID is within the last 2 * (LOCK_STRIPES + 1) slots.
+     */
+    private void observeRecentIds() {
+        long end = transactionCount.get();
+        for (long slot = Math.max(0, end - 2L * (LOCK_STRIPES + 1)); slot < end; slot++) {
+            long id = transactionSegment(slot).getLong(transactionOffset(slot) + ID);
+            if (id != 0) { // 0 is a transaction torn by a crash
+                TransactionIdGenerator.observe(id);
+            }
+        }
+    }
+
+    /**
+     * Open the store in a directory, creating it if needed
+     *
+     * @param directory The store directory
+     * @return The opened store
+     * @throws IOException if the files cannot be mapped or belong to a different layout
+     */
+    public static MappedAccountStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        checkMeta(directory.resolve(META_FILE));
+        return new MappedAccountStore(directory, mapExisting(directory, ACCOUNT_PREFIX, ACCOUNT_RECORD_SIZE),
+                mapExisting(directory, TRANSACTION_PREFIX, TRANSACTION_RECORD_SIZE));
+    }
+
+    /**
+     * Open a new savings account
+     *
+     * @param ownerReference The owner's key in the caller's customer records
+     * @param initialBalance The initial balance in cents
+     * @param minBalance The minimum allowed balance in cents
+     * @param interestRate The annual interest rate (e.g., 0.05 for 5%)
+     * @return A view of the new account
+     */
+    public MappedAccount openSavingsAccount(long ownerReference, long initialBalance,
+                                            long minBalance, double interestRate) {
+        return openAccount(AccountType.SAVINGS, ownerReference, initialBalance, minBalance, interestRate, 0);
+    }
+
+    /**
+     * Open a new current account
+     *
+     * @param ownerReference The owner's key in the caller's customer records
+     * @param initialBalance The initial balance in cents
+     * @param overdraftLimit The maximum allowed overdraft in cents
+     * @return A view of the new account
+     */
+    public MappedAccount openCurrentAccount(long ownerReference, long initialBalance, long overdraftLimit) {
+        return openAccount(AccountType.CURRENT, ownerReference, initialBalance, overdraftLimit, 0, 0);
+    }
+
+    /**
+     * Open a new fixed deposit account maturing the given number of months from today
+     *
+     * @param ownerReference The owner's key in the caller's customer records
+     * @param depositAmount The fixed deposit amount in cents
+     * @param termInMonths The term in months until maturity
+     * @param interestRate The annual interest rate (e.g., 0.07 for 7%)
+     * @return A view of the new account
+     */
+    public MappedAccount openFixedDepositAccount(long ownerReference, long depositAmount,
+                                                 int termInMonths, double interestRate) {
+        int maturityDay = (int) BankClock.today().plusMonths(termInMonths).toEpochDay();
+        return openAccount(AccountType.FIXED_DEPOSIT, ownerReference, depositAmount, depositAmount,
+                interestRate, maturityDay);
+    }
+
+    /**
+     * Get a view of the account at a record index
+     *
+     * @param index The record index, from 0 to {@link #getAccountCount()} - 1
+     * @return The view
+     * @throws IndexOutOfBoundsException if there is no account at the index
+     */
+    public MappedAccount account(int index) {
+        if (index < 0 || index >= accountCount) {
+            throw new IndexOutOfBoundsException("No account at index " + index);
+        }
+        return new MappedAccount(this, index);
+    }
+
+    /**
+     * Find an account by its number
+     *
+     * @param accountNumber The account number
+     * @return A view of the account, or null if the store has no account with this number
+     */
+    public MappedAccount findByNumber(String accountNumber) {
+        long sequence = AccountNumberGenerator.sequenceOf(accountNumber);
+        if (sequence < 0 || sequence >= accountCount
+                || !accountNumber.startsWith(type((int) sequence).getPrefix() + "-")) {
+            return null;
+        }
+        return new MappedAccount(this, (int) sequence);
+    }
+
+    /**
+     * Get the number of accounts in the store
+     *
+     * @return The number of accounts
+     */
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    /**
+     * Get the number of transactions recorded in the store
+     *
+     * @return The number of transactions
+     */
+    public long getTransactionCount() {
+        return transactionCount.get();
+    }
+
+    /**
+     * Call an action with a view of every account, in record order
+     *
+     * @param action The action
+     */
+    public void forEach(Consumer<MappedAccount> action) {
+        int count = accountCount;
+        for (int index = 0; index < count; index++) {
+            action.accept(new MappedAccount(this, index));
+        }
+    }
+
+    /**
+     * Post interest to every savings account, one account at a time
+     *
+     * @return The total interest posted in cents
+     */
+    public long postInterest() {
+        long total = 0;
+        int count = accountCount;
+        for (int index = 0; index < count; index++) {
+            if (type(index) == AccountType.SAVINGS) {
+                total += new MappedAccount(this, index).applyInterest();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Force every write made so far to disk
+     */
+    public void flush() {
+        for (MappedByteBuffer segment : accountSegments) {
+            segment.force();
+        }
+        for (MappedByteBuffer segment : transactionSegments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Flush the store
+     * The mappings are released once the store and its views are no longer reachable,
+     * so views must not be used after closing
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    // Record access for MappedAccount
+
+    ReentrantLock lockFor(int index) {
+        return locks[stripeOf(index)];
+    }
+
+    static int stripeOf(int index) {
+        return index & (LOCK_STRIPES - 1);
+    }
+
+    long balance(int index) {
+        return (long) LONGS.getVolatile(accountSegment(index), accountOffset(index) + BALANCE);
+    }
+
+    AccountType type(int index) {
+        return AccountType.fromCode(accountSegment(index).get(accountOffset(index) + TYPE));
+    }
+
+    long ownerReference(int index) {
+        return accountSegment(index).getLong(accountOffset(index) + OWNER);
+    }
+
+    long parameter(int index) {
+        return accountSegment(index).getLong(accountOffset(index) + PARAMETER);
+    }
+
+    double rate(int index) {
+        return accountSegment(index).getLong(accountOffset(index) + RATE) / RATE_SCALE;
+    }
+
+    LocalDate dateCreated(int index) {
+        return LocalDate.ofEpochDay(accountSegment(index).getInt(accountOffset(index) + CREATED_DAY));
+    }
+
+    int maturityDay(int index) {
+        return accountSegment(index).getInt(accountOffset(index) + MATURITY_DAY);
+    }
+
+    long transactionCount(int index) {
+        return accountSegment(index).getLong(accountOffset(index) + TRANSACTION_COUNT);
+    }
+
+    String accountNumber(int index) {
+        return AccountNumberGenerator.format(type(index).getPrefix(), index);
+    }
+
+    /**
+     * Apply a transaction to an account's balance and record it
+     * Must be called with the account's lock held
+     */
+    void post(int index, long amount, TransactionType type, byte note, int counterparty,
+              long id, long linkedId) {
+        ByteBuffer segment = accountSegment(index);
+        int offset = accountOffset(index);
+        long balance = (long) LONGS.getVolatile(segment, offset + BALANCE);
+        LONGS.setVolatile(segment, offset + BALANCE, type.isCredit() ? balance + amount : balance - amount);
+        append(index, amount, type, note, counterparty, id, linkedId);
+        BankMetrics.recordTransaction(type, amount);
+    }
+
+    /**
+     * Rebuild an account's history from its chain of transactions
+     * Must be called with the account's lock held
+     */
+    TransactionHistory history(int index) {
+        ByteBuffer account = accountSegment(index);
+        int offset = accountOffset(index);
+        long[] slots = new long[(int) account.getLong(offset + TRANSACTION_COUNT)];
+        long slot = account.getLong(offset + LAST_TRANSACTION) - 1;
+        for (int i = slots.length - 1; i >= 0; i--) {
+            slots[i] = slot;
+            slot = transactionSegment(slot).getLong(transactionOffset(slot) + PREVIOUS) - 1;
+        }
+
+        TransactionHistory history = new TransactionHistory();
+        for (long transaction : slots) {
+            history.addTransaction(readTransaction(transaction));
+        }
+        return history;
+    }
+
+    private synchronized MappedAccount openAccount(AccountType type, long ownerReference, long initialBalance,
+                                                   long parameter, double rate, int maturityDay) {
+        int index = accountCount;
+        if (index == Integer.MAX_VALUE) {
+            throw new IllegalStateException("The store is full");
+        }
+        int segmentIndex = index >>> SEGMENT_SHIFT;
+        if (segmentIndex == accountSegments.length) {
+            accountSegments = grow(accountSegments, ACCOUNT_PREFIX, ACCOUNT_RECORD_SIZE);
+        }
+
+        ByteBuffer segment = accountSegments[segmentIndex];
+        int offset = accountOffset(index);
+        segment.putLong(offset + OWNER, ownerReference);
+        segment.putLong(offset + PARAMETER, parameter);
+        segment.putLong(offset + RATE, Math.round(rate * RATE_SCALE));
+        segment.putInt(offset + CREATED_DAY, (int) BankClock.today().toEpochDay());
+        segment.putInt(offset + MATURITY_DAY, maturityDay);
+        segment.putLong(offset + BALANCE, initialBalance);
+        // A crash between the initial deposit and the type leaves a record without a type that is
+        // reused on reopen; its stale transaction chain must not carry over to the new account
+        segment.putLong(offset + LAST_TRANSACTION, 0);
+        segment.putLong(offset + TRANSACTION_COUNT, 0);
+        if (initialBalance > 0) {
+            // Nobody can see the account before accountCount is raised, so no lock is needed yet
+            append(index, initialBalance, TransactionType.DEPOSIT, NOTE_INITIAL_DEPOSIT, NONE,
+                    TransactionIdGenerator.next(), 0);
+            BankMetrics.recordTransaction(TransactionType.DEPOSIT, initialBalance);
+        }
+        // Written last: a record with a type is a complete account when the store is reopened
+        segment.put(offset + TYPE, type.getCode());
+        accountCount = index + 1;
+        return new MappedAccount(this, index);
+    }
+
+    /**
+     * Write a transaction record and link it into the account's chain
+     */
+    private void append(int index, long amount, TransactionType type, byte note, int counterparty,
+                        long id, long linkedId) {
+        long slot = transactionCount.getAndIncrement();
+        ByteBuffer account = accountSegment(index);
+        int accountOffset = accountOffset(index);
+
+        ByteBuffer transaction = transactionSegment(slot);
+        int offset = transactionOffset(slot);
+        transaction.putLong(offset + AMOUNT, amount);
+        transaction.putLong(offset + TIMESTAMP, BankClock.millis());
+        transaction.putLong(offset + LINKED_ID, linkedId);
+        transaction.putLong(offset + PREVIOUS, account.getLong(accountOffset + LAST_TRANSACTION));
+        transaction.putInt(offset + ACCOUNT, index);
+        transaction.putInt(offset + COUNTERPARTY, counterparty);
+        transaction.put(offset + TRANSACTION_TYPE, type.getCode());
+        transaction.put(offset + NOTE, note);
+        // Written last: a record with an ID is a complete transaction when the store is reopened
+        transaction.putLong(offset + ID, id);
+
+        account.putLong(accountOffset + LAST_TRANSACTION, slot + 1);
+        account.putLong(accountOffset + TRANSACTION_COUNT, account.getLong(accountOffset + TRANSACTION_COUNT) + 1);
+    }
+
+    private Transaction readTransaction(long slot) {
+        ByteBuffer segment = transactionSegment(slot);
+        int offset = transactionOffset(slot);
+        TransactionType type = TransactionType.fromCode(segment.get(offset + TRANSACTION_TYPE));
+        String description = describe(type, segment.get(offset + NOTE), segment.getInt(offset + COUNTERPARTY));
+        return new Transaction(segment.getLong(offset + ID), segment.getLong(offset + AMOUNT),
+                segment.getLong(offset + TIMESTAMP), type, description, segment.getLong(offset + LINKED_ID));
+    }
+
+    /**
+     * Rebuild the description the heap account classes give the same transaction
+     */
+    private String describe(TransactionType type, byte note, int counterparty) {
+        switch (type) {
+            case DEPOSIT:
+                return note == NOTE_INITIAL_DEPOSIT ? "Initial deposit" : "Deposit";
+            case WITHDRAWAL:
+                return note == NOTE_AT_MATURITY ? "Withdrawal at maturity" : "Withdrawal";
+            case INTEREST_ADDED:
+                return "Interest applied";
+            case FEE_CHARGED:
+                return "Overdraft fee";
+            case TRANSFER_IN:
+                return "Transfer from " + accountNumber(counterparty);
+            case TRANSFER_OUT:
+                return "Transfer to " + accountNumber(counterparty);
+            default:
+                return type.getDescription();
+        }
+    }
+
+    private ByteBuffer accountSegment(int index) {
+        return accountSegments[index >>> SEGMENT_SHIFT];
+    }
+
+    private ByteBuffer transactionSegment(long slot) {
+        int segmentIndex = (int) (slot >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] segments = transactionSegments;
+        if (segmentIndex < segments.length) {
+            return segments[segmentIndex];
+        }
+        synchronized (growthLock) {
+            while (segmentIndex >= transactionSegments.length) {
+                transactionSegments = grow(transactionSegments, TRANSACTION_PREFIX, TRANSACTION_RECORD_SIZE);
+            }
+            return transactionSegments[segmentIndex];
+        }
+    }
+
+    private static int accountOffset(int index) {
+        return (index & SEGMENT_MASK) * ACCOUNT_RECORD_SIZE;
+    }
+
+    private static int transactionOffset(long slot) {
+        return (int) (slot & SEGMENT_MASK) * TRANSACTION_RECORD_SIZE;
+    }
+
+    /**
+     * Map one more segment file and return the extended segment array
+     */
+    private MappedByteBuffer[] grow(MappedByteBuffer[] segments, String prefix, int recordSize) {
+        MappedByteBuffer[] grown = Arrays.copyOf(segments, segments.length + 1);
+        try {
+            grown[segments.length] = map(segmentPath(directory, prefix, segments.length), recordSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot map a new segment of " + directory, e);
+        }
+        return grown;
+    }
+
+    private static MappedByteBuffer map(Path file, int recordSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Mapping past the end extends the file; the new records read as zeros
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) SEGMENT_RECORDS * recordSize);
+        }
+    }
+
+    private static MappedByteBuffer[] mapExisting(Path directory, String prefix, int recordSize) throws IOException {
+        int count = 0;
+        while (Files.exists(segmentPath(directory, prefix, count))) {
+            count++;
+        }
+        MappedByteBuffer[] segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = map(segmentPath(directory, prefix, i), recordSize);
+        }
+        return segments;
+    }
+
+    /**
+     * Count the records up to the last complete one, found by the long at its marker offset
+     * being non-zero; only the last segment normally has to be searched
+     */
+    private static long recoverCount(MappedByteBuffer[] segments, int recordSize, int markerOffset) {
+        for (int segment = segments.length - 1; segment >= 0; segment--) {
+            for (int record = SEGMENT_RECORDS - 1; record >= 0; record--) {
+                if (segments[segment].getLong(record * recordSize + markerOffset) != 0) {
+                    return (long) segment * SEGMENT_RECORDS + record + 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Write the layout description of a new store, or check that of an existing one
+     */
+    private static void checkMeta(Path file) throws IOException {
+        ByteBuffer meta = ByteBuffer.allocate(5 * Integer.BYTES);
+        if (!Files.exists(file)) {
+            meta.putInt(MAGIC).putInt(VERSION).putInt(ACCOUNT_RECORD_SIZE).putInt(TRANSACTION_RECORD_SIZE)
+                    .putInt(SEGMENT_SHIFT).flip();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (meta.hasRemaining()) {
+                    channel.write(meta);
+                }
+                channel.force(true);
+            }
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (meta.hasRemaining() && channel.read(meta) >= 0) {
+                // Keep reading until the description is complete or the file ends
+            }
+        }
+        meta.flip();
+        if (meta.remaining() < meta.capacity() || meta.getInt() != MAGIC || meta.getInt() != VERSION
+                || meta.getInt() != ACCOUNT_RECORD_SIZE || meta.getInt() != TRANSACTION_RECORD_SIZE
+                || meta.getInt() != SEGMENT_SHIFT) {
+            throw new IOException("Unsupported account store layout in " + file);
+        }
+    }
+
+    private static Path segmentPath(Path directory, String prefix, int segment) {
+        return directory.resolve(String.format("%s%06d%s", prefix, segment, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,373 @@
+package com.olim.bankaccountmanagementsystem.persistence;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.PeriodSummary;
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+
+/**
+ * Writes and loads point-in-time snapshots of all accounts
+ *
+ * A snapshot file holds [int magic][byte version][long journalSequence], then one
+ * record per account and finally an end marker followed by a CRC32C of everything
+ * before it. An account record is the account (attributes and balance) in the
+ * {@link RecordCodec} format, its commit ticket and the number of recent transactions
+ * as varints, those transactions as codec records, and the per-day totals of the
+ * account's whole history: the number of days, the opening balance of the first,
+ * and for each day its distance to the previous one, the number of transaction types
+ * and for each type its code, total amount and count.
+ *
+ * Accounts are captured one at a time under their own lock, so writers are never
+ * stopped. Each account stores the journal sequence its state reflects; on restart
+ * journal records at or below it are skipped, which makes the result consistent.
+ */
+public class SnapshotStore {
+    private static final int MAGIC = 0x42534e50; // "BSNP"
+    private static final byte VERSION = 1;
+    private static final byte ACCOUNT_RECORD = 1;
+    private static final byte END_MARKER = 0;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int SNAPSHOTS_TO_KEEP = 2;
+    private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final int recentTransactions;
+
+    /**
+     * Constructor for a snapshot store
+     *
+     * @param directory The snapshot directory (created if missing)
+     * @param recentTransactions How many of the most recent transactions to keep per account
+     * @throws IOException if the directory cannot be created
+     */
+    public SnapshotStore(Path directory, int recentTransactions) throws IOException {
+        this.directory = directory;
+        this.recentTransactions = recentTransactions;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Write a snapshot of the given accounts
+     * The file is written under a temporary name, forced, renamed and the directory forced,
+     * so a crash never leaves a half-written or lost snapshot behind. Older snapshots are
+     * pruned afterwards.
+     *
+     * @param journalSequence Every journal record up to this sequence is reflected in the accounts
+     * @param accounts The accounts to capture
+     * @return The path of the written snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public Path write(long journalSequence, Iterable<Account> accounts) throws IOException {
+        Path target = snapshotPath(journalSequence);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.putInt(MAGIC);
+            buffer.put(VERSION);
+            buffer.putLong(journalSequence);
+
+            for (Account account : accounts) {
+                // Capture consistent state under the account lock, encode outside of it
+                long balance;
+                long ticket;
+                List<Transaction> recent;
+                List<PeriodSummary> days;
+                account.acquireLock();
+                try {
+                    balance = account.getBalance();
+                    ticket = account.getCommitTicket();
+                    recent = account.getTransactionHistory().getLastNTransactions(recentTransactions);
+                    days = account.getDailySummaries();
+                } finally {
+                    account.releaseLock();
+                }
+                buffer = putAccount(channel, buffer, crc, account, balance, ticket, recent, days);
+            }
+
+            buffer.put(END_MARKER);
+            flush(channel, buffer, crc);
+            buffer.putInt((int) crc.getValue());
+            flush(channel, buffer, null);
+            channel.force(true);
+        }
+
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // The rename is only durable once the directory entry is; journal segments get deleted after this returns
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        }
+        pruneOlderThan(journalSequence);
+        return target;
+    }
+
+    /**
+     * Load the most recent intact snapshot
+     *
+     * @param consumer Receives every restored account
+     * @return The journal sequence the snapshot covers, or 0 if there is no snapshot
+     * @throws IOException if a snapshot exists but cannot be read
+     */
+    public long loadLatest(Consumer<Account> consumer) throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path snapshot = snapshots.get(i);
+            if (isIntact(snapshot)) {
+                return load(snapshot, consumer);
+            }
+            System.err.println("Skipping damaged snapshot " + snapshot);
+        }
+        return 0;
+    }
+
+    /**
+     * Get the journal sequence covered by the oldest snapshot kept
+     * loadLatest falls back to older snapshots when newer ones are damaged, so the
+     * journal must be kept from this sequence on for the fallback to lose nothing
+     *
+     * @return The journal sequence of the oldest snapshot, or 0 if there is no snapshot
+     * @throws IOException if the snapshot directory cannot be listed
+     */
+    public long getOldestSequence() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        return snapshots.isEmpty() ? 0 : sequenceOf(snapshots.get(0));
+    }
+
+    private ByteBuffer putAccount(FileChannel channel, ByteBuffer buffer, CRC32C crc, Account account,
+                                  long balance, long ticket, List<Transaction> recent,
+                                  List<PeriodSummary> days) throws IOException {
+        while (true) {
+            int start = buffer.position();
+            try {
+                buffer.put(ACCOUNT_RECORD);
+                RecordCodec.encodeAccount(buffer, account, balance);
+                RecordCodec.putVarLong(buffer, ticket);
+                RecordCodec.putVarLong(buffer, recent.size());
+                // History lists are most recent first; store oldest first so they can be re-appended in order
+                for (int i = recent.size() - 1; i >= 0; i--) {
+                    RecordCodec.encodeTransaction(buffer, recent.get(i));
+                }
+                putDays(buffer, days);
+                return buffer;
+            } catch (BufferOverflowException e) {
+                buffer.position(start);
+                if (start == 0) {
+                    // A single account does not fit into an empty buffer
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                } else {
+                    flush(channel, buffer, crc);
+                }
+            }
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        if (crc != null) {
+            crc.update(buffer.duplicate());
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private long load(Path snapshot, Consumer<Account> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            // Snapshots can be larger than a single mapping, so they are streamed through one buffer
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            channel.read(buffer);
+            buffer.flip();
+            buffer.getInt(); // Magic, checked by isIntact
+            buffer.get(); // Version, checked by isIntact
+            long journalSequence = buffer.getLong();
+
+            while (true) {
+                int start = buffer.position();
+                try {
+                    if (buffer.get() != ACCOUNT_RECORD) {
+                        return journalSequence;
+                    }
+                    Account account = loadAccount(buffer);
+                    consumer.accept(account);
+                } catch (BufferUnderflowException e) {
+                    // The record continues past the buffered data: read more and decode it again
+                    buffer.position(start);
+                    buffer = refill(channel, buffer);
+                }
+            }
+        }
+    }
+
+    private static Account loadAccount(ByteBuffer buffer) {
+        Account account = RecordCodec.decodeAccount(buffer);
+        long ticket = RecordCodec.getVarLong(buffer);
+        int count = (int) RecordCodec.getVarLong(buffer);
+        List<Transaction> recent = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recent.add(RecordCodec.decodeTransaction(buffer));
+        }
+        account.restoreSnapshot(account.getBalance(), recent, getDays(buffer), ticket);
+        return account;
+    }
+
+    /**
+     * Write the per-day totals, each day relative to the one before so the numbers stay small
+     */
+    private static void putDays(ByteBuffer buffer, List<PeriodSummary> days) {
+        RecordCodec.putVarLong(buffer, days.size());
+        if (days.isEmpty()) {
+            return;
+        }
+        RecordCodec.putSignedVarLong(buffer, days.get(0).getOpeningBalance());
+        long previousDay = 0;
+        for (PeriodSummary day : days) {
+            long epochDay = day.getFrom().toEpochDay();
+            RecordCodec.putSignedVarLong(buffer, epochDay - previousDay);
+            previousDay = epochDay;
+
+            int typesUsed = 0;
+            for (TransactionType type : TRANSACTION_TYPES) {
+                if (day.getCount(type) > 0) {
+                    typesUsed++;
+                }
+            }
+            buffer.put((byte) typesUsed);
+            for (TransactionType type : TRANSACTION_TYPES) {
+                if (day.getCount(type) > 0) {
+                    buffer.put(type.getCode());
+                    RecordCodec.putVarLong(buffer, day.getTotal(type));
+                    RecordCodec.putVarLong(buffer, day.getCount(type));
+                }
+            }
+        }
+    }
+
+    private static List<PeriodSummary> getDays(ByteBuffer buffer) {
+        int count = (int) RecordCodec.getVarLong(buffer);
+        List<PeriodSummary> days = new ArrayList<>(count);
+        long balance = count == 0 ? 0 : RecordCodec.getSignedVarLong(buffer);
+        long epochDay = 0;
+        for (int i = 0; i < count; i++) {
+            epochDay += RecordCodec.getSignedVarLong(buffer);
+            long[] totals = new long[TRANSACTION_TYPES.length];
+            long[] counts = new long[TRANSACTION_TYPES.length];
+            long opening = balance;
+            int typesUsed = buffer.get();
+            for (int t = 0; t < typesUsed; t++) {
+                TransactionType type = TransactionType.fromCode(buffer.get());
+                long total = RecordCodec.getVarLong(buffer);
+                totals[type.ordinal()] = total;
+                counts[type.ordinal()] = RecordCodec.getVarLong(buffer);
+                balance += type.isCredit() ? total : -total;
+            }
+            LocalDate day = LocalDate.ofEpochDay(epochDay);
+            days.add(new PeriodSummary(day, day, opening, balance, totals, counts));
+        }
+        return days;
+    }
+
+    private static ByteBuffer refill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+            // A single record is larger than the whole buffer
+            ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        if (channel.read(buffer) < 0) {
+            throw new IOException("Snapshot ends in the middle of a record");
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Check the header and trailing checksum of a snapshot file
+     */
+    private static boolean isIntact(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Integer.BYTES + 1 + Long.BYTES + 1 + Integer.BYTES) {
+                return false;
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            channel.read(buffer, 0);
+            if (buffer.getInt(0) != MAGIC || buffer.get(Integer.BYTES) != VERSION) {
+                return false;
+            }
+
+            long bodyLength = size - Integer.BYTES;
+            CRC32C crc = new CRC32C();
+            long position = 0;
+            while (position < bodyLength) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), bodyLength - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    return false;
+                }
+                buffer.flip();
+                crc.update(buffer);
+                position += read;
+            }
+
+            buffer.clear();
+            buffer.limit(Integer.BYTES);
+            channel.read(buffer, bodyLength);
+            return (int) crc.getValue() == buffer.getInt(0);
+        }
+    }
+
+    private void pruneOlderThan(long journalSequence) throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (int i = 0; i < snapshots.size() - SNAPSHOTS_TO_KEEP; i++) {
+            if (sequenceOf(snapshots.get(i)) < journalSequence) {
+                Files.deleteIfExists(snapshots.get(i));
+            }
+        }
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+            }).sorted().forEach(snapshots::add);
+        }
+        return snapshots;
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    private Path snapshotPath(long journalSequence) {
+        // Zero padded so that lexical order is sequence order
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, journalSequence, SNAPSHOT_SUFFIX));
+    }
+}
@@ -0,0 +1,441 @@
+package com.olim.bankaccountmanagementsystem.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionHistory;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+import com.olim.bankaccountmanagementsystem.util.Money;
+import com.olim.bankaccountmanagementsystem.util.TransactionIdGenerator;
+
+/**
+ * Writes account statements to CSV or newline-delimited JSON files
+ *
+ * Histories are walked in place over the filter's time window, which the history
+ * locates by binary search, and every row is encoded
+ * straight into one reusable buffer, which is written to the file channel
+ * whenever it fills up. Memory use is therefore the same for ten transactions
+ * or for every transaction of the bank; nothing is copied into lists or strings.
+ *
+ * An exporter owns its buffer, so it must only be used by one thread at a time.
+ */
+public class StatementExporter {
+    /** Default size of the write buffer */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] CSV_HEADER =
+            "account_number,transaction_id,timestamp,type,amount,description,linked_transaction_id\n"
+                    .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Output formats
+     */
+    public enum Format {
+        /** Comma separated values with a header row */
+        CSV,
+        /** One JSON object per line */
+        NDJSON
+    }
+
+    private final Format format;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20]; // Scratch space for the digits of a long
+    private FileChannel channel; // Channel of the export in progress
+
+    /**
+     * Constructor for an exporter with the default buffer size
+     *
+     * @param format The output format
+     */
+    public StatementExporter(Format format) {
+        this(format, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor for an exporter with a specific buffer size
+     *
+     * @param format The output format
+     * @param bufferSize The size of the write buffer in bytes
+     */
+    public StatementExporter(Format format, int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("Buffer size must be at least 64 bytes");
+        }
+        this.format = format;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Export the statement of one account, replacing the file if it exists
+     *
+     * @param account The account to export
+     * @param filter The transactions to include
+     * @param file The file to write
+     * @return The number of transactions written
+     * @throws IOException if the file cannot be written
+     */
+    public long export(Account account, Filter filter, Path file) throws IOException {
+        return export(List.of(account), filter, file);
+    }
+
+    /**
+     * Export the statements of many accounts into one file, replacing it if it exists
+     * Every row carries its account number, so this also serves full-bank exports
+     *
+     * @param accounts The accounts to export
+     * @param filter The transactions to include
+     * @param file The file to write
+     * @return The number of transactions written
+     * @throws IOException if the file cannot be written
+     */
+    public long export(Iterable<Account> accounts, Filter filter, Path file) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel = fileChannel;
+            buffer.clear();
+            if (format == Format.CSV) {
+                putBytes(CSV_HEADER);
+            }
+
+            long written = 0;
+            for (Account account : accounts) {
+                String accountNumber = account.getAccountNumber();
+                TransactionHistory history = account.getTransactionHistory();
+                for (Transaction transaction : history.between(filter.fromMillis, filter.toMillis)) {
+                    if (filter.types.contains(transaction.getType())) {
+                        if (format == Format.CSV) {
+                            putCsvRow(accountNumber, transaction);
+                        } else {
+                            putJsonRow(accountNumber, transaction);
+                        }
+                        written++;
+                    }
+                }
+            }
+            flush();
+            return written;
+        } finally {
+            channel = null;
+        }
+    }
+
+    private void putCsvRow(String accountNumber, Transaction transaction) throws IOException {
+        putAscii(accountNumber);
+        put(',');
+        putTransactionId(transaction.getId());
+        put(',');
+        putTimestamp(transaction.getTimestamp());
+        put(',');
+        putAscii(transaction.getType().name());
+        put(',');
+        putAmount(transaction.getAmount());
+        put(',');
+        putCsvText(transaction.getDescription());
+        put(',');
+        if (transaction.getLinkedTransactionId() != 0) {
+            putTransactionId(transaction.getLinkedTransactionId());
+        }
+        put('\n');
+    }
+
+    private void putJsonRow(String accountNumber, Transaction transaction) throws IOException {
+        putAscii("{\"accountNumber\":\"");
+        putJsonText(accountNumber);
+        // IDs use up to 63 bits, more than a JSON number keeps exactly in JavaScript, so they are strings
+        putAscii("\",\"transactionId\":\"");
+        putTransactionId(transaction.getId());
+        putAscii("\",\"timestamp\":\"");
+        putTimestamp(transaction.getTimestamp());
+        putAscii("\",\"type\":\"");
+        putAscii(transaction.getType().name());
+        // The amount is written as a JSON number with exactly two decimals
+        putAscii("\",\"amount\":");
+        putAmount(transaction.getAmount());
+        putAscii(",\"description\":\"");
+        putJsonText(transaction.getDescription());
+        putByte('"');
+        if (transaction.getLinkedTransactionId() != 0) {
+            putAscii(",\"linkedTransactionId\":\"");
+            putTransactionId(transaction.getLinkedTransactionId());
+            putByte('"');
+        }
+        putAscii("}\n");
+    }
+
+    /**
+     * Write the timestamp as ISO local date-time with milliseconds, e.g. 2024-01-31T09:05:00.250
+     */
+    private void putTimestamp(long epochMillis) throws IOException {
+        LocalDateTime dateTime = BankClock.toLocalDateTime(epochMillis);
+        putPadded(dateTime.getYear(), 4);
+        put('-');
+        putPadded(dateTime.getMonthValue(), 2);
+        put('-');
+        putPadded(dateTime.getDayOfMonth(), 2);
+        put('T');
+        putPadded(dateTime.getHour(), 2);
+        put(':');
+        putPadded(dateTime.getMinute(), 2);
+        put(':');
+        putPadded(dateTime.getSecond(), 2);
+        put('.');
+        putPadded(dateTime.getNano() / 1_000_000, 3);
+    }
+
+    /**
+     * Write an amount in cents as decimal text with two decimals, like {@link Money#format(long)}
+     */
+    private void putAmount(long amount) throws IOException {
+        long major = amount / Money.MINOR_PER_MAJOR;
+        long minor = Math.abs(amount % Money.MINOR_PER_MAJOR);
+        if (amount < 0 && major == 0) {
+            put('-');
+        }
+        putLong(major);
+        put('.');
+        putPadded((int) minor, 2);
+    }
+
+    private void putPadded(int value, int width) throws IOException {
+        for (int divisor = width == 4 ? 1000 : width == 3 ? 100 : 10; divisor > 0; divisor /= 10) {
+            putByte('0' + value / divisor % 10);
+        }
+    }
+
+    /**
+     * Write a transaction ID as 16 hexadecimal digits, the rendering of {@link TransactionIdGenerator#format(long)}
+     */
+    private void putTransactionId(long id) throws IOException {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            putByte(HEX_DIGITS[(int) (id >>> shift) & 0xF]);
+        }
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            putAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (length > 0) {
+            putByte(digits[--length]);
+        }
+    }
+
+    /**
+     * Write a CSV field, quoted only if it contains a separator, quote or line break
+     */
+    private void putCsvText(String text) throws IOException {
+        if (text == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            putText(text);
+            return;
+        }
+        put('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                put('"');
+            }
+            i = putChar(text, i);
+        }
+        put('"');
+    }
+
+    /**
+     * Write the contents of a JSON string, escaping quotes, backslashes and control characters
+     */
+    private void putJsonText(String text) throws IOException {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                put('\\');
+                put(c);
+            } else if (c == '\n') {
+                putAscii("\\n");
+            } else if (c == '\r') {
+                putAscii("\\r");
+            } else if (c == '\t') {
+                putAscii("\\t");
+            } else if (c < 0x20) {
+                putAscii("\\u00");
+                putByte(HEX_DIGITS[c >> 4]);
+                putByte(HEX_DIGITS[c & 0xF]);
+            } else {
+                i = putChar(text, i);
+            }
+        }
+    }
+
+    private void putText(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            i = putChar(text, i);
+        }
+    }
+
+    /**
+     * Write the character at the given index as UTF-8
+     *
+     * @return The index of the last char consumed, which is the next one for a surrogate pair
+     */
+    private int putChar(String text, int index) throws IOException {
+        char c = text.charAt(index);
+        if (c < 0x80) {
+            putByte(c);
+        } else if (c < 0x800) {
+            putByte(0xC0 | (c >> 6));
+            putByte(0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && index + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, text.charAt(index + 1));
+            putByte(0xF0 | (codePoint >> 18));
+            putByte(0x80 | ((codePoint >> 12) & 0x3F));
+            putByte(0x80 | ((codePoint >> 6) & 0x3F));
+            putByte(0x80 | (codePoint & 0x3F));
+            return index + 1;
+        } else if (Character.isSurrogate(c)) {
+            putByte('?'); // Unpaired surrogate, not encodable
+        } else {
+            putByte(0xE0 | (c >> 12));
+            putByte(0x80 | ((c >> 6) & 0x3F));
+            putByte(0x80 | (c & 0x3F));
+        }
+        return index;
+    }
+
+    private void putAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            putByte(text.charAt(i));
+        }
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+        for (byte b : bytes) {
+            putByte(b);
+        }
+    }
+
+    private void put(char c) throws IOException {
+        putByte(c);
+    }
+
+    private void putByte(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put((byte) b);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Selects the transactions of a statement by date range and type
+     */
+    public static final class Filter {
+        private static final Filter ALL = new Filter(Long.MIN_VALUE, Long.MAX_VALUE, EnumSet.allOf(TransactionType.class));
+
+        private final long fromMillis; // Inclusive
+        private final long toMillis; // Exclusive
+        private final Set<TransactionType> types;
+
+        private Filter(long fromMillis, long toMillis, Set<TransactionType> types) {
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+            this.types = types;
+        }
+
+        /**
+         * Get a filter that includes every transaction
+         *
+         * @return The filter
+         */
+        public static Filter all() {
+            return ALL;
+        }
+
+        /**
+         * Get a filter for the transactions made on the given days
+         *
+         * @param from The first day, or null for no lower bound
+         * @param to The last day (inclusive), or null for no upper bound
+         * @return The filter including every transaction type
+         */
+        public static Filter between(LocalDate from, LocalDate to) {
+            return ALL.withDates(from, to);
+        }
+
+        /**
+         * Get a copy of this filter restricted to the given days
+         *
+         * @param from The first day, or null for no lower bound
+         * @param to The last day (inclusive), or null for no upper bound
+         * @return The new filter
+         */
+        public Filter withDates(LocalDate from, LocalDate to) {
+            if (from != null && to != null && to.isBefore(from)) {
+                throw new IllegalArgumentException("The end date must not be before the start date");
+            }
+            return new Filter(from == null ? Long.MIN_VALUE : BankClock.startOfDayMillis(from),
+                    to == null ? Long.MAX_VALUE : BankClock.startOfDayMillis(to.plusDays(1)), types);
+        }
+
+        /**
+         * Get a copy of this filter restricted to the given transaction types
+         *
+         * @param first A type to include
+         * @param rest More types to include
+         * @return The new filter
+         */
+        public Filter withTypes(TransactionType first, TransactionType... rest) {
+            return new Filter(fromMillis, toMillis, EnumSet.of(first, rest));
+        }
+
+        /**
+         * Check whether a transaction belongs to the statement
+         *
+         * @param transaction The transaction to check
+         * @return true if its time and type match
+         */
+        public boolean matches(Transaction transaction) {
+            long timestamp = transaction.getTimestamp();
+            return timestamp >= fromMillis && timestamp < toMillis && types.contains(transaction.getType());
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.AccountType;
+
+/**
+ * Concurrent registry of all accounts in the banking system, split into shards
+ * An account lives in the shard its account number hashes to, and an owner's
+ * entry in the shard the owner ID hashes to, so registrations and lookups only
+ * touch one or two shards and never a structure shared by every thread.
+ *
+ * Queries covering every account fan out to the shards and merge their results.
+ * For large registries each shard answers on its own thread, so they run in parallel.
+ */
+public class AccountRegistry implements Closeable {
+    // Below this many accounts, fan-out queries run on the caller's thread
+    private static final int PARALLEL_THRESHOLD = 16 * 1024;
+
+    private final AccountShard[] shards;
+    private final AtomicLong registrations = new AtomicLong(); // Next registration number
+    private volatile boolean closed;
+
+    /**
+     * Constructor for a new empty registry with one shard per available processor
+     */
+    public AccountRegistry() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for a new empty registry with a specific number of shards
+     *
+     * @param shardCount The number of shards
+     */
+    public AccountRegistry(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = new AccountShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new AccountShard(i);
+        }
+    }
+
+    /**
+     * Register an account in all indexes
+     * The account number index is updated first, so a duplicate account number
+     * is rejected before the owner index is touched
+     *
+     * @param account The account to register
+     * @throws IllegalStateException if an account with the same number is already registered
+     */
+    public void register(Account account) {
+        if (!shardFor(account.getAccountNumber()).add(account, registrations.getAndIncrement())) {
+            throw new IllegalStateException("Duplicate account number: " + account.getAccountNumber());
+        }
+        shardFor(account.getOwner().getId()).addOwned(account);
+    }
+
+    /**
+     * Find an account by its account number
+     *
+     * @param accountNumber The account number to search for
+     * @return The account if found, null otherwise
+     */
+    public Account findByNumber(String accountNumber) {
+        if (accountNumber == null) {
+            return null;
+        }
+        return shardFor(accountNumber).findByNumber(accountNumber);
+    }
+
+    /**
+     * Get all accounts owned by a specific person
+     *
+     * @param owner The person whose accounts to retrieve
+     * @return A list of accounts owned by the person (empty if none)
+     */
+    public List<Account> findByOwner(Person owner) {
+        if (owner == null) {
+            return Collections.emptyList();
+        }
+        return shardFor(owner.getId()).findByOwner(owner);
+    }
+
+    /**
+     * Get all accounts of a specific type
+     *
+     * @param type The account type
+     * @return A snapshot list of the accounts of that type
+     */
+    public List<Account> findByType(AccountType type) {
+        return fanOut(shard -> shard.findByType(type), count(type));
+    }
+
+    /**
+     * Get the accounts of a specific type held by one shard
+     * Lets callers split work over all accounts by shard
+     *
+     * @param type The account type
+     * @param shard The shard number, from 0 to {@link #getShardCount()} - 1
+     * @return A snapshot list of that shard's accounts of that type
+     */
+    public List<Account> findByType(AccountType type, int shard) {
+        return shards[shard].findByType(type);
+    }
+
+    /**
+     * Sum a value over all accounts of a specific type, without building a list
+     * Large shards are reduced in parallel on the common fork/join pool
+     *
+     * @param type The account type
+     * @param value The value of one account, e.g. its balance
+     * @return The sum over all accounts of that type
+     */
+    public long sumOfType(AccountType type, ToLongFunction<Account> value) {
+        long sum = 0;
+        for (AccountShard shard : shards) {
+            sum += shard.sumOfType(type, value);
+        }
+        return sum;
+    }
+
+    /**
+     * Run an action for every account of a specific type, without building a list
+     * Large shards are visited in parallel, so the action must be thread-safe
+     *
+     * @param type The account type
+     * @param action The action to run
+     */
+    public void forEachOfType(AccountType type, Consumer<Account> action) {
+        for (AccountShard shard : shards) {
+            shard.forEachOfType(type, action);
+        }
+    }
+
+    /**
+     * Get a snapshot of all registered accounts
+     * Each shard copies its part on its own thread, then the parts are merged
+     * so accounts are listed in the order they were registered, which is the order they were created in
+     *
+     * @return A list of all accounts
+     */
+    public List<Account> getAll() {
+        return mergeByRegistration(queryShards(AccountShard::getRegistrations, size()));
+    }
+
+    /**
+     * Check if an account number is already registered
+     *
+     * @param accountNumber The account number to check
+     * @return true if the number is taken, false otherwise
+     */
+    public boolean contains(String accountNumber) {
+        return shardFor(accountNumber).findByNumber(accountNumber) != null;
+    }
+
+    /**
+     * Get the number of registered accounts
+     *
+     * @return The number of accounts
+     */
+    public int size() {
+        int size = 0;
+        for (AccountShard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Get the number of accounts of a specific type, without building a list
+     *
+     * @param type The account type
+     * @return The number of accounts of that type
+     */
+    public int count(AccountType type) {
+        int count = 0;
+        for (AccountShard shard : shards) {
+            count += shard.count(type);
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of shards
+     *
+     * @return The number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Stop the shard threads
+     * The registry stays usable; queries covering every shard then run on the caller's thread
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (AccountShard shard : shards) {
+            shard.close();
+        }
+    }
+
+    private AccountShard shardFor(String key) {
+        // Spread the hash so keys differing only in their last characters still use every shard
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return shards[Math.floorMod(hash, shards.length)];
+    }
+
+    /**
+     * Merge the shards' registration-ordered accounts into one list in registration order
+     * Each part is already sorted, so this is a k-way merge over a heap of parts keyed by
+     * their next registration number, O(n log k) for n accounts in k shards
+     *
+     * @param parts One registration snapshot per shard
+     * @return All accounts in registration order
+     */
+    private static List<Account> mergeByRegistration(List<AccountShard.Registrations> parts) {
+        int total = 0;
+        for (AccountShard.Registrations part : parts) {
+            total += part.numbers.length;
+        }
+        List<Account> merged = new ArrayList<>(total);
+
+        int[] positions = new int[parts.size()]; // Next unmerged index of each part
+        int[] heap = new int[parts.size()]; // Part indexes, smallest next registration number first
+        int heapSize = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            if (parts.get(i).numbers.length > 0) {
+                heap[heapSize++] = i;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(heap, heapSize, i, parts, positions);
+        }
+
+        while (heapSize > 0) {
+            int smallest = heap[0];
+            AccountShard.Registrations part = parts.get(smallest);
+            merged.add(part.accounts[positions[smallest]++]);
+            if (positions[smallest] == part.numbers.length) {
+                heap[0] = heap[--heapSize];
+            }
+            if (heapSize > 0) {
+                siftDown(heap, heapSize, 0, parts, positions);
+            }
+        }
+        return merged;
+    }
+
+    private static void siftDown(int[] heap, int heapSize, int index,
+                                 List<AccountShard.Registrations> parts, int[] positions) {
+        int part = heap[index];
+        long key = parts.get(part).numbers[positions[part]];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            long childKey = parts.get(heap[child]).numbers[positions[heap[child]]];
+            if (child + 1 < heapSize) {
+                long rightKey = parts.get(heap[child + 1]).numbers[positions[heap[child + 1]]];
+                if (rightKey < childKey) {
+                    child++;
+                    childKey = rightKey;
+                }
+            }
+            if (key <= childKey) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = part;
+    }
+
+    /**
+     * Run a query on every shard and concatenate the results
+     *
+     * @param query The query to run on one shard
+     * @param expectedSize The expected total number of results
+     * @return The merged results
+     */
+    private List<Account> fanOut(Function<AccountShard, List<Account>> query, int expectedSize) {
+        List<Account> merged = new ArrayList<>(expectedSize);
+        for (List<Account> part : queryShards(query, expectedSize)) {
+            merged.addAll(part);
+        }
+        return merged;
+    }
+
+    /**
+     * Run a query on every shard, on the shards' own threads for large registries
+     *
+     * @param query The query to run on one shard
+     * @param expectedSize The expected total number of results
+     * @return The result of each shard, in shard order
+     */
+    private <T> List<T> queryShards(Function<AccountShard, T> query, int expectedSize) {
+        List<T> results = new ArrayList<>(shards.length);
+        if (shards.length == 1 || expectedSize < PARALLEL_THRESHOLD || closed) {
+            for (AccountShard shard : shards) {
+                results.add(query.apply(shard));
+            }
+            return results;
+        }
+
+        List<CompletableFuture<T>> parts = new ArrayList<>(shards.length);
+        for (AccountShard shard : shards) {
+            parts.add(CompletableFuture.supplyAsync(() -> query.apply(shard), shard.executor()));
+        }
+        for (CompletableFuture<T> part : parts) {
+            results.add(part.join());
+        }
+        return results;
+    }
+}
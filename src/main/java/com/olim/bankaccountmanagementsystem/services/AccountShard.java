@@ -0,0 +1,168 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.AccountType;
+
+/**
+ * One partition of the account registry
+ * A shard indexes the accounts whose number hashes to it, and the owner
+ * entries of the owners whose ID hashes to it. It has its own executor,
+ * which runs this shard's part of queries that cover every shard.
+ * Reductions over the accounts of one type run on the common fork/join pool
+ * straight over the type index, without copying it.
+ */
+class AccountShard {
+    // Above this many accounts of a type, reductions over them run in parallel
+    private static final long PARALLELISM_THRESHOLD = 4096;
+
+    // Primary index: account number -> account
+    private final ConcurrentMap<String, Account> accountsByNumber = new ConcurrentHashMap<>();
+    // Registration numbers in ascending order, with the account at the same index,
+    // so accounts can be listed in the order they were created (guarded by this shard)
+    private long[] registrationNumbers = new long[16];
+    private Account[] registeredAccounts = new Account[16];
+    private int registeredCount;
+    // Owner ID -> accounts of that owner, for owners assigned to this shard
+    private final ConcurrentMap<String, List<Account>> accountsByOwner = new ConcurrentHashMap<>();
+    // Account type -> accounts of that type (fixed keys, concurrent sets)
+    private final Map<AccountType, ConcurrentHashMap.KeySetView<Account, Boolean>> accountsByType =
+            new EnumMap<>(AccountType.class);
+    // Bookkeeping: accounts of each type, indexed by ordinal
+    private final AtomicInteger[] countsByType = new AtomicInteger[AccountType.values().length];
+    private final ExecutorService executor; // Its thread is only started by the first query
+
+    /**
+     * Constructor for an empty shard
+     *
+     * @param index The shard number, used to name its thread
+     */
+    AccountShard(int index) {
+        for (AccountType type : AccountType.values()) {
+            accountsByType.put(type, ConcurrentHashMap.newKeySet());
+            countsByType[type.ordinal()] = new AtomicInteger();
+        }
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-shard-" + index);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Add an account to the number, registration and type indexes
+     *
+     * @param account The account
+     * @param registration The account's number in the registry-wide registration order
+     * @return false if an account with the same number is already in this shard
+     */
+    boolean add(Account account, long registration) {
+        if (accountsByNumber.putIfAbsent(account.getAccountNumber(), account) != null) {
+            return false;
+        }
+        recordRegistration(account, registration);
+        accountsByType.get(account.getAccountType()).add(account);
+        countsByType[account.getAccountType().ordinal()].incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Insert an account into the registration order
+     * Registration numbers are drawn before the shard is reached, so a racing
+     * registration can arrive slightly out of order; it is moved back past
+     * the few later numbers instead of sorting on every read
+     */
+    private synchronized void recordRegistration(Account account, long registration) {
+        if (registeredCount == registrationNumbers.length) {
+            registrationNumbers = Arrays.copyOf(registrationNumbers, registeredCount * 2);
+            registeredAccounts = Arrays.copyOf(registeredAccounts, registeredCount * 2);
+        }
+        int position = registeredCount;
+        while (position > 0 && registrationNumbers[position - 1] > registration) {
+            registrationNumbers[position] = registrationNumbers[position - 1];
+            registeredAccounts[position] = registeredAccounts[position - 1];
+            position--;
+        }
+        registrationNumbers[position] = registration;
+        registeredAccounts[position] = account;
+        registeredCount++;
+    }
+
+    void addOwned(Account account) {
+        accountsByOwner.computeIfAbsent(account.getOwner().getId(), id -> new CopyOnWriteArrayList<>())
+                .add(account);
+    }
+
+    Account findByNumber(String accountNumber) {
+        return accountsByNumber.get(accountNumber);
+    }
+
+    List<Account> findByOwner(Person owner) {
+        List<Account> accounts = accountsByOwner.get(owner.getId());
+        return accounts == null ? new ArrayList<>() : new ArrayList<>(accounts);
+    }
+
+    List<Account> findByType(AccountType type) {
+        return new ArrayList<>(accountsByType.get(type));
+    }
+
+    /**
+     * Get the accounts of this shard with their registration numbers, in registration order
+     */
+    synchronized Registrations getRegistrations() {
+        return new Registrations(Arrays.copyOf(registrationNumbers, registeredCount),
+                Arrays.copyOf(registeredAccounts, registeredCount));
+    }
+
+    long sumOfType(AccountType type, ToLongFunction<Account> value) {
+        return accountsByType.get(type).getMap().reduceKeysToLong(PARALLELISM_THRESHOLD, value, 0L, Long::sum);
+    }
+
+    void forEachOfType(AccountType type, Consumer<Account> action) {
+        accountsByType.get(type).getMap().forEachKey(PARALLELISM_THRESHOLD, action);
+    }
+
+    int size() {
+        return accountsByNumber.size();
+    }
+
+    int count(AccountType type) {
+        return countsByType[type.ordinal()].get();
+    }
+
+    ExecutorService executor() {
+        return executor;
+    }
+
+    void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Snapshot of a shard's accounts in registration order
+     * numbers[i] is the registration number of accounts[i], ascending
+     */
+    static final class Registrations {
+        final long[] numbers;
+        final Account[] accounts;
+
+        Registrations(long[] numbers, Account[] accounts) {
+            this.numbers = numbers;
+            this.accounts = accounts;
+        }
+    }
+}
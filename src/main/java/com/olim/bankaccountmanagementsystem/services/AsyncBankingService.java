@@ -0,0 +1,109 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+
+/**
+ * Asynchronous facade over a BankingSystem
+ * Every call returns immediately with a CompletableFuture, and the operation runs
+ * on its own virtual thread. Waiting for account locks or for the journal therefore
+ * never blocks the caller, which keeps the JavaFX application thread responsive.
+ *
+ * Futures complete on the virtual thread that ran the operation; UI code must
+ * hand results back to its own thread (e.g. with Platform.runLater).
+ * Failures, such as an unknown account, complete the future exceptionally.
+ */
+public class AsyncBankingService implements Closeable {
+    private final BankingSystem bankingSystem;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor for a facade over the given banking system
+     *
+     * @param bankingSystem The banking system that performs the operations
+     */
+    public AsyncBankingService(BankingSystem bankingSystem) {
+        this.bankingSystem = bankingSystem;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bank-operation-", 0).factory());
+    }
+
+    /**
+     * Deposit money into an account
+     *
+     * @param accountNumber The account to deposit into
+     * @param amount The amount in cents
+     * @return Completes with true if the deposit was made, false if the account rejected it
+     */
+    public CompletableFuture<Boolean> deposit(String accountNumber, long amount) {
+        return supply(() -> findAccount(accountNumber).deposit(amount));
+    }
+
+    /**
+     * Withdraw money from an account
+     *
+     * @param accountNumber The account to withdraw from
+     * @param amount The amount in cents
+     * @return Completes with true if the withdrawal was made, false if the account rejected it
+     */
+    public CompletableFuture<Boolean> withdraw(String accountNumber, long amount) {
+        return supply(() -> findAccount(accountNumber).withdraw(amount));
+    }
+
+    /**
+     * Transfer money between two accounts atomically
+     *
+     * @param fromAccountNumber The account to debit
+     * @param toAccountNumber The account to credit
+     * @param amount The amount in cents
+     * @return Completes with true if the transfer was made, false if either account rejected it
+     * @see BankingSystem#transfer(String, String, long)
+     */
+    public CompletableFuture<Boolean> transfer(String fromAccountNumber, String toAccountNumber, long amount) {
+        return supply(() -> bankingSystem.transfer(fromAccountNumber, toAccountNumber, amount));
+    }
+
+    /**
+     * Apply a batch of deposits and withdrawals
+     *
+     * @param batch The operations to apply; must not be modified until the future completes
+     * @return Completes with the per-operation results
+     * @see BankingSystem#submit(OperationBatch)
+     */
+    public CompletableFuture<boolean[]> submit(OperationBatch batch) {
+        return supply(() -> bankingSystem.submit(batch));
+    }
+
+    /**
+     * Apply interest to all savings accounts
+     *
+     * @return Completes with the summary of the run
+     */
+    public CompletableFuture<InterestRunReport> applyInterestToSavingsAccounts() {
+        return supply(bankingSystem::applyInterestToSavingsAccounts);
+    }
+
+    /**
+     * Stop accepting operations and wait for those already submitted to finish
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(operation, executor);
+    }
+
+    private Account findAccount(String accountNumber) {
+        Account account = bankingSystem.findAccountByNumber(accountNumber);
+        if (account == null) {
+            throw new IllegalArgumentException("Unknown account: " + accountNumber);
+        }
+        return account;
+    }
+}
@@ -0,0 +1,82 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.SortedMap;
+
+import com.olim.bankaccountmanagementsystem.model.account.AccountType;
+import com.olim.bankaccountmanagementsystem.util.Money;
+
+/**
+ * Bank-wide totals at one point in time
+ */
+public class BankTotals {
+    private final long[] depositsHeld; // In cents, by account type ordinal
+    private final long overdraftExposure; // In cents
+    private final SortedMap<YearMonth, Long> fixedDepositsMaturing; // In cents, by maturity month
+
+    /**
+     * Constructor for a set of totals
+     *
+     * @param depositsHeld The positive balances held, by account type ordinal
+     * @param overdraftExposure The total overdrawn amount of current accounts
+     * @param fixedDepositsMaturing The fixed deposit balances by maturity month
+     */
+    BankTotals(long[] depositsHeld, long overdraftExposure, SortedMap<YearMonth, Long> fixedDepositsMaturing) {
+        this.depositsHeld = depositsHeld;
+        this.overdraftExposure = overdraftExposure;
+        this.fixedDepositsMaturing = Collections.unmodifiableSortedMap(fixedDepositsMaturing);
+    }
+
+    /**
+     * Get the money customers hold in accounts of one type
+     * Overdrawn balances count as nothing held, see {@link #getOverdraftExposure()}
+     *
+     * @param type The account type
+     * @return The sum of the positive balances in cents
+     */
+    public long getDepositsHeld(AccountType type) {
+        return depositsHeld[type.ordinal()];
+    }
+
+    /**
+     * Get the money customers hold across all account types
+     *
+     * @return The sum of the positive balances in cents
+     */
+    public long getTotalDepositsHeld() {
+        long total = 0;
+        for (long held : depositsHeld) {
+            total += held;
+        }
+        return total;
+    }
+
+    /**
+     * Get the total amount current accounts are overdrawn by
+     *
+     * @return The sum of the negative balances as a positive amount in cents
+     */
+    public long getOverdraftExposure() {
+        return overdraftExposure;
+    }
+
+    /**
+     * Get the fixed deposit money maturing in every month that has any
+     *
+     * @return The balances in cents by maturity month, earliest first
+     */
+    public SortedMap<YearMonth, Long> getFixedDepositsMaturing() {
+        return fixedDepositsMaturing;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("BankTotals[");
+        for (AccountType type : AccountType.values()) {
+            builder.append(type).append('=').append(Money.format(depositsHeld[type.ordinal()])).append(", ");
+        }
+        return builder.append("overdraftExposure=").append(Money.format(overdraftExposure))
+                .append(", maturingMonths=").append(fixedDepositsMaturing.size()).append(']').toString();
+    }
+}
@@ -1,28 +1,94 @@
 package com.olim.bankaccountmanagementsystem.services;
 
-import java.util.ArrayList;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
+import com.olim.bankaccountmanagementsystem.metrics.AccountLookupEvent;
+import com.olim.bankaccountmanagementsystem.metrics.BankMetrics;
 import com.olim.bankaccountmanagementsystem.model.Person;
 import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.AccountType;
 import com.olim.bankaccountmanagementsystem.model.account.CurrentAccount;
 import com.olim.bankaccountmanagementsystem.model.account.FixedDepositAccount;
 import com.olim.bankaccountmanagementsystem.model.account.SavingsAccount;
+import com.olim.bankaccountmanagementsystem.model.account.TransactionListener;
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+import com.olim.bankaccountmanagementsystem.persistence.Journal;
+import com.olim.bankaccountmanagementsystem.persistence.JournalCodec;
+import com.olim.bankaccountmanagementsystem.persistence.SnapshotStore;
+import com.olim.bankaccountmanagementsystem.persistence.StatementExporter;
+import com.olim.bankaccountmanagementsystem.util.AccountNumberGenerator;
 
 /**
  * Service class to manage all banking operations
  * This demonstrates the use of collections and service layers in OOP
+ * 
+ * When opened on a data directory, every account creation and transaction
+ * is written to the journal before the call returns. On startup the latest
+ * snapshot is loaded and only the journal written after it is replayed.
  */
-public class BankingSystem {
-    private List<Account> accounts;
+public class BankingSystem implements Closeable {
+    // Number of most recent transactions per account kept in snapshots
+    private static final int SNAPSHOT_HISTORY_SIZE = 100;
+    
+    private final AccountRegistry accounts;
+    private final AccountNumberGenerator accountNumbers = new AccountNumberGenerator();
+    private final Journal journal; // null when running in memory only
+    private final SnapshotStore snapshots; // null when running in memory only
+    private final TransactionListener journalingListener = new JournalingListener();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final InterestPostingEngine interestEngine;
+    private final ReportingEngine reporting;
+    private final AsyncBankingService asyncService = new AsyncBankingService(this);
+    private ScheduledExecutorService snapshotScheduler;
+    private CommandEngine commandEngine; // Started on first use
     
     /**
-     * Constructor for a new banking system
+     * Constructor for a new in-memory banking system
+     * Nothing survives a restart
      */
     public BankingSystem() {
-        this.accounts = new ArrayList<>();
+        this.accounts = new AccountRegistry();
+        this.journal = null;
+        this.snapshots = null;
+        this.interestEngine = new InterestPostingEngine(accounts, Runtime.getRuntime().availableProcessors());
+        this.reporting = new ReportingEngine(accounts);
+    }
+    
+    /**
+     * Constructor for a durable banking system backed by snapshots and a journal
+     * All accounts are restored before this returns
+     * 
+     * @param dataDirectory The directory holding the journal and snapshot subdirectories
+     * @throws IOException if the snapshot or journal cannot be read
+     */
+    public BankingSystem(Path dataDirectory) throws IOException {
+        this.accounts = new AccountRegistry();
+        this.snapshots = new SnapshotStore(dataDirectory.resolve("snapshots"), SNAPSHOT_HISTORY_SIZE);
+        long snapshotSequence = snapshots.loadLatest(accounts::register);
+        this.journal = Journal.open(dataDirectory.resolve("journal"), Journal.DEFAULT_SEGMENT_SIZE,
+                snapshotSequence, this::replayRecord);
+        this.reporting = new ReportingEngine(accounts);
+        
+        // Totals start from the recovered balances; replay itself is not counted
+        for (Account account : accounts.getAll()) {
+            account.setTransactionListener(journalingListener);
+            accountNumbers.observe(account.getAccountNumber());
+            reporting.track(account);
+        }
+        this.interestEngine = new InterestPostingEngine(accounts, Runtime.getRuntime().availableProcessors(),
+                journalingListener::awaitCommit);
     }
     
     /**
@@ -30,16 +96,16 @@ public class BankingSystem {
      * This demonstrates method overloading
      * 
      * @param owner The account owner
-     * @param initialBalance The initial balance
-     * @param minBalance The minimum balance requirement
+     * @param initialBalance The initial balance in cents
+     * @param minBalance The minimum balance requirement in cents
      * @param interestRate The interest rate
      * @return The created savings account
      */
-    public SavingsAccount createSavingsAccount(Person owner, double initialBalance,
-                                               double minBalance, double interestRate) {
-        String accountNumber = generateAccountNumber("SAV");
+    public SavingsAccount createSavingsAccount(Person owner, long initialBalance,
+                                               long minBalance, double interestRate) {
+        String accountNumber = accountNumbers.next(AccountType.SAVINGS.getPrefix());
         SavingsAccount account = new SavingsAccount(accountNumber, initialBalance, owner, minBalance, interestRate);
-        accounts.add(account);
+        addAccount(account);
         return account;
     }
     
@@ -47,14 +113,14 @@ public class BankingSystem {
      * Create a new current account
      * 
      * @param owner The account owner
-     * @param initialBalance The initial balance
-     * @param overdraftLimit The overdraft limit
+     * @param initialBalance The initial balance in cents
+     * @param overdraftLimit The overdraft limit in cents
      * @return The created current account
      */
-    public CurrentAccount createCurrentAccount(Person owner, double initialBalance, double overdraftLimit) {
-        String accountNumber = generateAccountNumber("CUR");
+    public CurrentAccount createCurrentAccount(Person owner, long initialBalance, long overdraftLimit) {
+        String accountNumber = accountNumbers.next(AccountType.CURRENT.getPrefix());
         CurrentAccount account = new CurrentAccount(accountNumber, initialBalance, owner, overdraftLimit);
-        accounts.add(account);
+        addAccount(account);
         return account;
     }
     
@@ -62,19 +128,156 @@ public class BankingSystem {
      * Create a new fixed deposit account
      * 
      * @param owner The account owner
-     * @param depositAmount The deposit amount
+     * @param depositAmount The deposit amount in cents
      * @param termInMonths The term in months
      * @param interestRate The interest rate
      * @return The created fixed deposit account
      */
-    public FixedDepositAccount createFixedDepositAccount(Person owner, double depositAmount,
+    public FixedDepositAccount createFixedDepositAccount(Person owner, long depositAmount,
                                                          int termInMonths, double interestRate) {
-        String accountNumber = generateAccountNumber("FIX");
+        String accountNumber = accountNumbers.next(AccountType.FIXED_DEPOSIT.getPrefix());
         FixedDepositAccount account = new FixedDepositAccount(accountNumber, depositAmount, owner, termInMonths, interestRate);
-        accounts.add(account);
+        addAccount(account);
         return account;
     }
     
+    /**
+     * Register a newly created account and journal its opening
+     * The account lock is held throughout, so no operation on the new account
+     * can reach the journal before the account itself does
+     * 
+     * @param account The new account
+     */
+    private void addAccount(Account account) {
+        if (journal == null) {
+            accounts.register(account);
+            reporting.track(account);
+            return;
+        }
+        
+        long sequence;
+        account.acquireLock();
+        try {
+            account.setTransactionListener(journalingListener);
+            accounts.register(account);
+            reporting.track(account);
+            
+            sequence = journal.append(JournalCodec.ACCOUNT_OPENED,
+                    buffer -> JournalCodec.encodeAccountOpened(buffer, account));
+            // The constructor may already have recorded the initial deposit; journal it oldest first
+            List<Transaction> initialTransactions = account.getTransactionHistory().getAllTransactions();
+            for (int i = initialTransactions.size() - 1; i >= 0; i--) {
+                sequence = journalTransaction(account, initialTransactions.get(i));
+            }
+            account.recordCommitTicket(sequence);
+        } finally {
+            account.releaseLock();
+        }
+        syncJournal(sequence);
+    }
+    
+    /**
+     * Transfer money between two accounts atomically
+     * The debit and the credit are recorded as linked transactions on both accounts
+     * and journaled as a single record
+     * 
+     * @param fromAccountNumber The account to debit
+     * @param toAccountNumber The account to credit
+     * @param amount The amount in cents
+     * @return true if the transfer was made, false if either account's rules reject it
+     * @throws IllegalArgumentException if an account does not exist or both numbers are the same
+     */
+    public boolean transfer(String fromAccountNumber, String toAccountNumber, long amount) {
+        Account from = accounts.findByNumber(fromAccountNumber);
+        Account to = accounts.findByNumber(toAccountNumber);
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Unknown account: " + (from == null ? fromAccountNumber : toAccountNumber));
+        }
+        return from.transferTo(to, amount);
+    }
+    
+    /**
+     * Apply a batch of deposits and withdrawals
+     * Operations are grouped by account, and each account is locked once for all
+     * of its operations, which run in the order they were added. The journal is
+     * made durable once for the whole batch instead of once per operation.
+     * Each operation is still checked and recorded on its own, so rejected
+     * operations do not affect the others.
+     *
+     * @param batch The operations to apply
+     * @return For each operation, in batch order, true if it was applied and false if the account rejected it
+     * @throws IllegalArgumentException if an account does not exist; nothing is applied in that case
+     */
+    public boolean[] submit(OperationBatch batch) {
+        int size = batch.size();
+        boolean[] results = new boolean[size];
+        
+        // Chain the operations of each account together: groups hold {first, last} and next links them
+        int[] next = new int[size];
+        Map<Account, int[]> groups = new IdentityHashMap<>();
+        for (int i = 0; i < size; i++) {
+            Account account = accounts.findByNumber(batch.getAccountNumber(i));
+            if (account == null) {
+                throw new IllegalArgumentException("Unknown account: " + batch.getAccountNumber(i));
+            }
+            next[i] = -1;
+            int[] group = groups.get(account);
+            if (group == null) {
+                groups.put(account, new int[] {i, i});
+            } else {
+                next[group[1]] = i;
+                group[1] = i;
+            }
+        }
+        
+        long ticket = 0;
+        try {
+            for (Map.Entry<Account, int[]> group : groups.entrySet()) {
+                Account account = group.getKey();
+                account.acquireLock();
+                try {
+                    for (int i = group.getValue()[0]; i != -1; i = next[i]) {
+                        long amount = batch.getAmount(i);
+                        results[i] = batch.getKind(i) == OperationBatch.DEPOSIT
+                                ? account.deposit(amount)
+                                : account.withdraw(amount);
+                    }
+                } finally {
+                    ticket = Math.max(ticket, account.releaseLockDeferringCommit());
+                }
+            }
+        } finally {
+            if (ticket != 0) {
+                journalingListener.awaitCommit(ticket);
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Get the asynchronous facade over this banking system
+     * Use it from threads that must not block, such as the JavaFX application thread
+     * 
+     * @return The asynchronous facade, closed together with this banking system
+     */
+    public AsyncBankingService async() {
+        return asyncService;
+    }
+    
+    /**
+     * Get the ring-buffer command engine, starting it on first use
+     * It has one writer thread per two available processors
+     * 
+     * @return The command engine, closed together with this banking system
+     */
+    public synchronized CommandEngine commands() {
+        if (commandEngine == null) {
+            int partitions = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            commandEngine = new CommandEngine(partitions, journalingListener::awaitCommit);
+        }
+        return commandEngine;
+    }
+    
     /**
      * Find an account by its account number
      * 
@@ -82,19 +285,21 @@ public class BankingSystem {
      * @return The account if found, null otherwise
      */
     public Account findAccountByNumber(String accountNumber) {
-        return accounts.stream()
-                .filter(account -> account.getAccountNumber().equals(accountNumber))
-                .findFirst()
-                .orElse(null);
+        long start = System.nanoTime();
+        AccountLookupEvent event = AccountLookupEvent.start();
+        Account account = accounts.findByNumber(accountNumber);
+        BankMetrics.recordFindAccount(System.nanoTime() - start);
+        event.finish(accountNumber, account != null);
+        return account;
     }
     
     /**
      * Get all accounts in the system
      * 
-     * @return A list of all accounts
+     * @return A list of all accounts, in the order they were created
      */
     public List<Account> getAllAccounts() {
-        return new ArrayList<>(accounts);
+        return accounts.getAll();
     }
     
     /**
@@ -104,31 +309,218 @@ public class BankingSystem {
      * @return A list of accounts owned by the person
      */
     public List<Account> getAccountsByOwner(Person owner) {
-        return accounts.stream()
-                .filter(account -> account.getOwner().getId().equals(owner.getId()))
-                .collect(Collectors.toList());
+        return accounts.findByOwner(owner);
     }
     
     /**
-     * Generate a unique account number
+     * Get the bank-wide totals: deposits held per account type, overdraft
+     * exposure and fixed deposits maturing per month
      * 
-     * @param prefix The account type prefix
-     * @return A unique account number
+     * @return The reporting engine, kept up to date by every operation
      */
-    private String generateAccountNumber(String prefix) {
-        // Generate a 6-digit random number
-        String randomPart = String.format("%06d", (int)(Math.random() * 1000000));
-        return prefix + "-" + randomPart;
+    public ReportingEngine reports() {
+        return reporting;
+    }
+    
+    /**
+     * Export the statements of every account into one file
+     * Histories are streamed through the exporter's buffer, never copied
+     * 
+     * @param file The file to write
+     * @param format CSV or NDJSON
+     * @param filter The transactions to include
+     * @return The number of transactions written
+     * @throws IOException if the file cannot be written
+     */
+    public long exportStatements(Path file, StatementExporter.Format format, StatementExporter.Filter filter)
+            throws IOException {
+        return new StatementExporter(format).export(accounts.getAll(), filter, file);
     }
     
     /**
      * Apply interest to all savings accounts
-     * This would typically be run on a scheduled basis
+     * Accounts are posted in parallel, each one atomically under its own lock
+     * 
+     * @return The summary of the run
+     */
+    public InterestRunReport applyInterestToSavingsAccounts() {
+        return interestEngine.run(InterestPostingEngine.ProgressListener.NONE);
+    }
+    
+    /**
+     * Apply interest to all savings accounts, reporting progress while it runs
+     * 
+     * @param listener Receives progress from the posting threads
+     * @return The summary of the run
+     */
+    public InterestRunReport applyInterestToSavingsAccounts(InterestPostingEngine.ProgressListener listener) {
+        return interestEngine.run(listener);
+    }
+    
+    /**
+     * Post interest to all savings accounts periodically in the background
+     * Progress and the result of every run are printed to standard output
+     * 
+     * @param initialDelay The time until the first run
+     * @param interval The time between the end of one run and the start of the next
+     */
+    public void scheduleInterestPosting(Duration initialDelay, Duration interval) {
+        interestEngine.schedule(initialDelay, interval, InterestPostingEngine.loggingListener());
+    }
+    
+    /**
+     * Write a snapshot of all accounts and delete the journal segments that every kept snapshot covers
+     * Writers are not stopped: accounts are captured one at a time under their own lock
+     * 
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("Snapshots require a banking system opened on a data directory");
+        }
+        
+        snapshotLock.lock();
+        try {
+            // Everything up to this sequence is already applied in memory and will be in the snapshot
+            long sequence = journal.roll();
+            snapshots.write(sequence, accounts.getAll());
+            // Keep the journal after the oldest snapshot, in case the newer ones turn out damaged
+            journal.deleteSegmentsUpTo(snapshots.getOldestSequence());
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+    
+    /**
+     * Take a snapshot periodically in the background
+     * 
+     * @param interval The time between snapshots
+     */
+    public synchronized void scheduleSnapshots(Duration interval) {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (Exception e) {
+                System.err.println("Error writing snapshot: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stop scheduled work, let pending asynchronous operations finish and close the journal,
+     * flushing anything not yet durable
+     * 
+     * @throws IOException if the final flush fails
+     */
+    @Override
+    public void close() throws IOException {
+        asyncService.close();
+        synchronized (this) {
+            if (snapshotScheduler != null) {
+                snapshotScheduler.shutdown();
+                snapshotScheduler = null;
+            }
+            if (commandEngine != null) {
+                commandEngine.close();
+            }
+        }
+        interestEngine.close();
+        accounts.close();
+        if (journal != null) {
+            snapshotLock.lock();
+            try {
+                journal.close();
+            } finally {
+                snapshotLock.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Rebuild state from one journal record during startup
+     * Records already reflected in the loaded snapshot are skipped
+     */
+    private void replayRecord(long sequence, byte type, ByteBuffer payload) throws IOException {
+        switch (type) {
+            case JournalCodec.ACCOUNT_OPENED:
+                Account opened = JournalCodec.decodeAccountOpened(payload);
+                if (!accounts.contains(opened.getAccountNumber())) {
+                    accounts.register(opened);
+                }
+                break;
+            case JournalCodec.TRANSACTION:
+                Account account = findReplayAccount(sequence, JournalCodec.decodeTransactionAccount(payload));
+                if (sequence > account.getCommitTicket()) {
+                    account.replayTransaction(JournalCodec.decodeTransaction(payload), sequence);
+                }
+                break;
+            case JournalCodec.TRANSFER:
+                Account source = findReplayAccount(sequence, JournalCodec.decodeTransactionAccount(payload));
+                Transaction debit = JournalCodec.decodeTransaction(payload);
+                Account target = findReplayAccount(sequence, JournalCodec.decodeTransactionAccount(payload));
+                Transaction credit = JournalCodec.decodeTransaction(payload);
+                if (sequence > source.getCommitTicket()) {
+                    source.replayTransaction(debit, sequence);
+                }
+                if (sequence > target.getCommitTicket()) {
+                    target.replayTransaction(credit, sequence);
+                }
+                break;
+            default:
+                throw new IOException("Unknown journal record type " + type + " at sequence " + sequence);
+        }
+    }
+    
+    private Account findReplayAccount(long sequence, String accountNumber) throws IOException {
+        Account account = accounts.findByNumber(accountNumber);
+        if (account == null) {
+            throw new IOException("Journal record " + sequence + " references unknown account " + accountNumber);
+        }
+        return account;
+    }
+    
+    private long journalTransaction(Account account, Transaction transaction) {
+        return journal.append(JournalCodec.TRANSACTION,
+                buffer -> JournalCodec.encodeTransaction(buffer, account.getAccountNumber(), transaction));
+    }
+    
+    private void syncJournal(long sequence) {
+        try {
+            journal.sync(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to make journal durable", e);
+        }
+    }
+    
+    /**
+     * Journals every transaction while the account lock is held and
+     * waits for durability after the lock is released
      */
-    public void applyInterestToSavingsAccounts() {
-        accounts.stream()
-                .filter(account -> account instanceof SavingsAccount)
-                .map(account -> (SavingsAccount) account)
-                .forEach(SavingsAccount::applyInterest);
+    private final class JournalingListener implements TransactionListener {
+        @Override
+        public long onTransaction(Account account, Transaction transaction) {
+            return journalTransaction(account, transaction);
+        }
+        
+        @Override
+        public long onTransfer(Account source, Transaction debit, Account target, Transaction credit) {
+            // One record for both sides, so a crash can never keep the debit without the credit
+            return journal.append(JournalCodec.TRANSFER, buffer -> JournalCodec.encodeTransfer(buffer,
+                    source.getAccountNumber(), debit, target.getAccountNumber(), credit));
+        }
+        
+        @Override
+        public void awaitCommit(long ticket) {
+            syncJournal(ticket);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,399 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+
+/**
+ * Applies deposit, withdrawal and transfer commands through pre-allocated ring buffers
+ * Modeled on the LMAX Disruptor: accounts are split into partitions by account number,
+ * and each partition has one ring buffer and one writer thread. Any number of threads
+ * publish commands into the ring; the writer drains everything published so far as one
+ * batch, applies it in publication order and then reports the results.
+ *
+ * Since a partition's accounts are only changed by its writer, their locks are
+ * uncontended; they are still taken so tellers, interest runs and snapshots
+ * working outside the engine stay safe. The journal is waited for once per batch,
+ * so a busy partition makes many commands durable with a single sync.
+ * A transfer runs on the source account's partition and locks both accounts
+ * in account number order, the same as {@link Account#transferTo(Account, long)}.
+ *
+ * Publishing allocates nothing; when a ring is full, publishers wait for the writer.
+ * An idle writer spins briefly and then parks until the next command is published.
+ */
+public class CommandEngine implements Closeable {
+    /** Default number of slots per ring buffer */
+    public static final int DEFAULT_RING_SIZE = 16 * 1024;
+
+    private static final byte DEPOSIT = 0;
+    private static final byte WITHDRAWAL = 1;
+    private static final byte TRANSFER = 2;
+
+    private static final int PADDING = 8; // Longs per sequence, so each has its own cache line
+    private static final int CLAIMED = PADDING; // Next sequence to hand to a publisher
+    private static final int PROCESSED = 2 * PADDING; // Last sequence the writer has finished
+    private static final long CLOSED = Long.MIN_VALUE / 2; // Claim counter value once the writer has stopped
+    private static final int SPINS_BEFORE_PARK = 1000;
+
+    /**
+     * Receives the result of a command
+     * Called on the partition's writer thread once the command is durable,
+     * so implementations must be quick and must not publish and wait on the same partition
+     */
+    @FunctionalInterface
+    public interface ResultHandler {
+        /** Handler that ignores all results */
+        ResultHandler NONE = (success, error) -> { };
+
+        /**
+         * Called once the command has been applied
+         *
+         * @param success true if the command was applied, false if an account's rules rejected it
+         * @param error The exception the command failed with, or null
+         */
+        void onResult(boolean success, Throwable error);
+    }
+
+    private final Partition[] partitions;
+
+    /**
+     * Constructor for an engine with the default ring size
+     *
+     * @param partitionCount The number of partitions, each with its own writer thread
+     * @param commitWaiter Blocks until everything up to a commit ticket is durable
+     */
+    public CommandEngine(int partitionCount, LongConsumer commitWaiter) {
+        this(partitionCount, DEFAULT_RING_SIZE, commitWaiter);
+    }
+
+    /**
+     * Constructor for an engine with a custom ring size
+     *
+     * @param partitionCount The number of partitions, each with its own writer thread
+     * @param ringSize The number of slots per ring buffer, a power of two
+     * @param commitWaiter Blocks until everything up to a commit ticket is durable
+     */
+    public CommandEngine(int partitionCount, int ringSize, LongConsumer commitWaiter) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        if (ringSize < 2 || Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two");
+        }
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(ringSize, commitWaiter, "command-writer-" + i);
+        }
+    }
+
+    /**
+     * Publish a deposit
+     *
+     * @param account The account to deposit into
+     * @param amount The amount in cents
+     * @param handler Receives the result
+     * @throws IllegalStateException if the engine is closed
+     */
+    public void deposit(Account account, long amount, ResultHandler handler) {
+        partitionOf(account).publish(DEPOSIT, account, null, amount, handler);
+    }
+
+    /**
+     * Publish a withdrawal
+     *
+     * @param account The account to withdraw from
+     * @param amount The amount in cents
+     * @param handler Receives the result
+     * @throws IllegalStateException if the engine is closed
+     */
+    public void withdraw(Account account, long amount, ResultHandler handler) {
+        partitionOf(account).publish(WITHDRAWAL, account, null, amount, handler);
+    }
+
+    /**
+     * Publish a transfer
+     *
+     * @param source The account to debit
+     * @param target The account to credit
+     * @param amount The amount in cents
+     * @param handler Receives the result
+     * @throws IllegalStateException if the engine is closed
+     */
+    public void transfer(Account source, Account target, long amount, ResultHandler handler) {
+        partitionOf(source).publish(TRANSFER, source, target, amount, handler);
+    }
+
+    /**
+     * Publish a deposit and get its result as a future
+     *
+     * @param account The account to deposit into
+     * @param amount The amount in cents
+     * @return Completes with true if the deposit was made, false if the account rejected it
+     */
+    public CompletableFuture<Boolean> deposit(Account account, long amount) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        deposit(account, amount, completing(result));
+        return result;
+    }
+
+    /**
+     * Publish a withdrawal and get its result as a future
+     *
+     * @param account The account to withdraw from
+     * @param amount The amount in cents
+     * @return Completes with true if the withdrawal was made, false if the account rejected it
+     */
+    public CompletableFuture<Boolean> withdraw(Account account, long amount) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        withdraw(account, amount, completing(result));
+        return result;
+    }
+
+    /**
+     * Publish a transfer and get its result as a future
+     *
+     * @param source The account to debit
+     * @param target The account to credit
+     * @param amount The amount in cents
+     * @return Completes with true if the transfer was made, false if either account rejected it
+     */
+    public CompletableFuture<Boolean> transfer(Account source, Account target, long amount) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        transfer(source, target, amount, completing(result));
+        return result;
+    }
+
+    /**
+     * Stop accepting commands and wait until every published command has been applied
+     */
+    @Override
+    public void close() {
+        for (Partition partition : partitions) {
+            partition.running = false;
+            LockSupport.unpark(partition.writer);
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private Partition partitionOf(Account account) {
+        return partitions[Math.floorMod(account.getAccountNumber().hashCode(), partitions.length)];
+    }
+
+    private static ResultHandler completing(CompletableFuture<Boolean> future) {
+        return (success, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(success);
+            }
+        };
+    }
+
+    /**
+     * One ring buffer and the writer thread that drains it
+     * Slot data lives in parallel arrays; a slot is handed to the writer by storing
+     * the lap of its sequence in the availability array, after the data is written.
+     */
+    private static final class Partition implements Runnable {
+        private final int mask;
+        private final int lapShift;
+        private final byte[] kinds;
+        private final Account[] sources;
+        private final Account[] targets;
+        private final long[] amounts;
+        private final ResultHandler[] handlers;
+        private final boolean[] results;
+        private final Throwable[] errors;
+        private final AtomicIntegerArray available;
+        private final AtomicLongArray sequences = new AtomicLongArray(3 * PADDING);
+        private final LongConsumer commitWaiter;
+        private final Thread writer;
+
+        private volatile boolean running = true;
+        private volatile boolean writerParked;
+
+        Partition(int ringSize, LongConsumer commitWaiter, String name) {
+            this.mask = ringSize - 1;
+            this.lapShift = Integer.numberOfTrailingZeros(ringSize);
+            this.kinds = new byte[ringSize];
+            this.sources = new Account[ringSize];
+            this.targets = new Account[ringSize];
+            this.amounts = new long[ringSize];
+            this.handlers = new ResultHandler[ringSize];
+            this.results = new boolean[ringSize];
+            this.errors = new Throwable[ringSize];
+            this.available = new AtomicIntegerArray(ringSize);
+            for (int i = 0; i < ringSize; i++) {
+                available.set(i, -1);
+            }
+            sequences.set(PROCESSED, -1);
+            this.commitWaiter = commitWaiter;
+            this.writer = new Thread(this, name);
+            writer.setDaemon(true);
+            writer.start();
+        }
+
+        void publish(byte kind, Account source, Account target, long amount, ResultHandler handler) {
+            if (!running) {
+                throw new IllegalStateException("Command engine is closed");
+            }
+            long sequence = sequences.getAndIncrement(CLAIMED);
+            if (sequence < 0) {
+                throw new IllegalStateException("Command engine is closed");
+            }
+
+            // Wait until the writer has finished with this slot's previous lap
+            int spins = 0;
+            while (sequence - (mask + 1) > sequences.get(PROCESSED)) {
+                if (++spins < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+
+            int slot = (int) sequence & mask;
+            kinds[slot] = kind;
+            sources[slot] = source;
+            targets[slot] = target;
+            amounts[slot] = amount;
+            handlers[slot] = handler;
+            // A full volatile write, so the parked check below cannot be reordered before it
+            available.set(slot, (int) (sequence >>> lapShift));
+
+            if (writerParked) {
+                LockSupport.unpark(writer);
+            }
+        }
+
+        @Override
+        public void run() {
+            long processed = -1;
+            int idleSpins = 0;
+            while (true) {
+                long next = processed + 1;
+                long last = next - 1;
+                while (isAvailable(last + 1) && last + 1 - next <= mask) {
+                    last++;
+                }
+
+                if (last >= next) {
+                    processBatch(next, last);
+                    processed = last;
+                    sequences.lazySet(PROCESSED, processed);
+                    idleSpins = 0;
+                } else if (!running && sequences.compareAndSet(CLAIMED, next, CLOSED)) {
+                    // Nothing claimed is left unprocessed and nobody can claim any more
+                    return;
+                } else if (++idleSpins < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    // Publishers and close() unpark the writer once they see the flag, so an idle
+                    // writer sleeps until there is work; the check after setting it closes the race
+                    writerParked = true;
+                    if (!isAvailable(next) && running) {
+                        LockSupport.park(this);
+                    }
+                    writerParked = false;
+                }
+            }
+        }
+
+        private boolean isAvailable(long sequence) {
+            return available.get((int) sequence & mask) == (int) (sequence >>> lapShift);
+        }
+
+        /**
+         * Apply the commands in [first, last], wait for them to be durable, then report them
+         */
+        private void processBatch(long first, long last) {
+            long ticket = 0;
+            for (long sequence = first; sequence <= last; sequence++) {
+                int slot = (int) sequence & mask;
+                try {
+                    ticket = Math.max(ticket, apply(slot));
+                } catch (RuntimeException e) {
+                    errors[slot] = e;
+                }
+            }
+
+            Throwable commitFailure = null;
+            if (ticket != 0) {
+                try {
+                    commitWaiter.accept(ticket);
+                } catch (RuntimeException e) {
+                    commitFailure = e;
+                }
+            }
+
+            for (long sequence = first; sequence <= last; sequence++) {
+                int slot = (int) sequence & mask;
+                Throwable error = errors[slot] != null ? errors[slot] : commitFailure;
+                try {
+                    handlers[slot].onResult(error == null && results[slot], error);
+                } catch (RuntimeException e) {
+                    System.err.println("Error in command result handler: " + e.getMessage());
+                    e.printStackTrace();
+                }
+                // Drop references so finished commands can be garbage collected
+                sources[slot] = null;
+                targets[slot] = null;
+                handlers[slot] = null;
+                errors[slot] = null;
+            }
+        }
+
+        /**
+         * Apply one command with its accounts locked, deferring the commit wait to the end of the batch
+         *
+         * @return The commit ticket of the command, 0 if there is nothing to wait for
+         */
+        private long apply(int slot) {
+            Account source = sources[slot];
+            long amount = amounts[slot];
+            results[slot] = false;
+
+            long ticket = 0;
+            if (kinds[slot] != TRANSFER) {
+                source.acquireLock();
+                try {
+                    results[slot] = kinds[slot] == DEPOSIT ? source.deposit(amount) : source.withdraw(amount);
+                } finally {
+                    ticket = source.releaseLockDeferringCommit();
+                }
+                return ticket;
+            }
+
+            Account target = targets[slot];
+            if (source == target) {
+                throw new IllegalArgumentException("Cannot transfer to the same account");
+            }
+            Account first = source.getAccountNumber().compareTo(target.getAccountNumber()) < 0 ? source : target;
+            Account second = first == source ? target : source;
+            first.acquireLock();
+            try {
+                second.acquireLock();
+                try {
+                    results[slot] = source.transferTo(target, amount);
+                } finally {
+                    ticket = second.releaseLockDeferringCommit();
+                }
+            } finally {
+                ticket = Math.max(ticket, first.releaseLockDeferringCommit());
+            }
+            return ticket;
+        }
+    }
+}
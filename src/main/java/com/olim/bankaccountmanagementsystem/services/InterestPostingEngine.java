@@ -0,0 +1,279 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+import com.olim.bankaccountmanagementsystem.metrics.BankMetrics;
+import com.olim.bankaccountmanagementsystem.metrics.InterestBatchEvent;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.AccountType;
+import com.olim.bankaccountmanagementsystem.model.account.SavingsAccount;
+
+/**
+ * Posts interest to every savings account in parallel
+ * Every shard of the registry gets its own task on a fork/join pool, which
+ * splits that shard's savings accounts into chunks; idle threads steal chunks
+ * from busier shards, and the shards' results are merged into one report.
+ * Each account's interest is calculated and posted under that account's lock,
+ * so a teller working on the same account sees either the balance before
+ * posting or the balance after it, never a half-applied one. Locks are released
+ * without waiting for the journal, which is waited for once per chunk.
+ */
+public class InterestPostingEngine implements Closeable {
+    private static final int CHUNK_SIZE = 1024; // Accounts posted by one task before it reports progress
+
+    private final AccountRegistry accounts;
+    private final ForkJoinPool pool;
+    private final LongConsumer commitWaiter;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Receives progress of a run
+     * Progress is reported from the pool threads after every chunk, so
+     * implementations must be thread-safe and quick
+     */
+    public interface ProgressListener {
+        /** Listener that ignores all progress */
+        ProgressListener NONE = (processed, total) -> { };
+
+        /**
+         * Called after a chunk of accounts has been processed
+         *
+         * @param processed The number of accounts processed so far
+         * @param total The number of accounts in the run
+         */
+        void onProgress(long processed, long total);
+
+        /**
+         * Called once when the run has finished
+         *
+         * @param report The summary of the run
+         */
+        default void onComplete(InterestRunReport report) {
+        }
+    }
+
+    /**
+     * Constructor for an engine posting to the savings accounts of an in-memory registry
+     *
+     * @param accounts The registry holding the accounts
+     * @param parallelism The number of pool threads posting interest
+     */
+    public InterestPostingEngine(AccountRegistry accounts, int parallelism) {
+        this(accounts, parallelism, ticket -> { });
+    }
+
+    /**
+     * Constructor for an engine posting to the savings accounts of a journaled registry
+     *
+     * @param accounts The registry holding the accounts
+     * @param parallelism The number of pool threads posting interest
+     * @param commitWaiter Blocks until everything up to a commit ticket is durable
+     */
+    public InterestPostingEngine(AccountRegistry accounts, int parallelism, LongConsumer commitWaiter) {
+        this.accounts = accounts;
+        this.pool = new ForkJoinPool(parallelism);
+        this.commitWaiter = commitWaiter;
+    }
+
+    /**
+     * Post interest to every savings account and wait for the run to finish
+     * Accounts the posting fails for (e.g. because the journal cannot be written)
+     * are counted in the report and the run continues with the others
+     *
+     * @param listener Receives progress while the run is going
+     * @return The summary of the run
+     */
+    public InterestRunReport run(ProgressListener listener) {
+        PostingRun run = new PostingRun(accounts.count(AccountType.SAVINGS), listener, commitWaiter);
+
+        long start = System.nanoTime();
+        pool.invoke(new ShardFanOut(accounts, run));
+        long elapsedNanos = System.nanoTime() - start;
+        BankMetrics.recordInterestRun(elapsedNanos);
+        Duration elapsed = Duration.ofNanos(elapsedNanos);
+
+        InterestRunReport report = new InterestRunReport(run.processed.get(), run.failed.sum(),
+                run.interest.sum(), elapsed);
+        listener.onComplete(report);
+        return report;
+    }
+
+    /**
+     * Run interest posting periodically in the background
+     * Runs never overlap: the next one starts the given interval after the previous one finished
+     *
+     * @param initialDelay The time until the first run
+     * @param interval The time between the end of one run and the start of the next
+     * @param listener Receives the progress of every scheduled run
+     */
+    public synchronized void schedule(Duration initialDelay, Duration interval, ProgressListener listener) {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "interest-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                run(listener);
+            } catch (Exception e) {
+                System.err.println("Error posting interest: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, initialDelay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Create a listener that prints progress to standard output in steps of 10%
+     * and the report at the end
+     *
+     * @return A new logging listener
+     */
+    public static ProgressListener loggingListener() {
+        AtomicInteger lastDecile = new AtomicInteger();
+        return new ProgressListener() {
+            @Override
+            public void onProgress(long processed, long total) {
+                int decile = (int) (processed * 10 / total);
+                int previous = lastDecile.get();
+                if (decile > previous && decile < 10 && lastDecile.compareAndSet(previous, decile)) {
+                    System.out.println("Interest run " + (decile * 10) + "% complete ("
+                            + processed + " of " + total + " accounts)");
+                }
+            }
+
+            @Override
+            public void onComplete(InterestRunReport report) {
+                lastDecile.set(0);
+                System.out.println(report);
+            }
+        };
+    }
+
+    /**
+     * Stop scheduled runs and the pool threads
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Shared state of one run
+     */
+    private static final class PostingRun {
+        final ProgressListener listener;
+        final AtomicLong processed = new AtomicLong();
+        final LongAdder failed = new LongAdder();
+        final LongAdder interest = new LongAdder();
+        final long total; // Savings accounts counted when the run started
+        final LongConsumer commitWaiter;
+
+        PostingRun(long total, ProgressListener listener, LongConsumer commitWaiter) {
+            this.total = total;
+            this.listener = listener;
+            this.commitWaiter = commitWaiter;
+        }
+    }
+
+    /**
+     * Starts one posting task per registry shard and waits for all of them
+     */
+    private static final class ShardFanOut extends RecursiveAction {
+        private final AccountRegistry accounts;
+        private final PostingRun run;
+
+        ShardFanOut(AccountRegistry accounts, PostingRun run) {
+            this.accounts = accounts;
+            this.run = run;
+        }
+
+        @Override
+        protected void compute() {
+            List<PostingTask> tasks = new ArrayList<>(accounts.getShardCount());
+            for (int shard = 0; shard < accounts.getShardCount(); shard++) {
+                Account[] savings = accounts.findByType(AccountType.SAVINGS, shard).toArray(new Account[0]);
+                if (savings.length > 0) {
+                    tasks.add(new PostingTask(run, savings, 0, savings.length));
+                }
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Posts interest to the accounts in [start, end), splitting the range until it is one chunk
+     */
+    private static final class PostingTask extends RecursiveAction {
+        private final PostingRun run;
+        private final Account[] accounts;
+        private final int start;
+        private final int end;
+
+        PostingTask(PostingRun run, Account[] accounts, int start, int end) {
+            this.run = run;
+            this.accounts = accounts;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > CHUNK_SIZE) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new PostingTask(run, accounts, start, middle), new PostingTask(run, accounts, middle, end));
+                return;
+            }
+
+            InterestBatchEvent event = InterestBatchEvent.start();
+            long chunkInterest = 0;
+            int chunkFailed = 0;
+            long ticket = 0;
+            for (int i = start; i < end; i++) {
+                SavingsAccount account = (SavingsAccount) accounts[i];
+                account.acquireLock();
+                try {
+                    chunkInterest += account.applyInterest();
+                } catch (RuntimeException e) {
+                    chunkFailed++;
+                    System.err.println("Error posting interest to " + account.getAccountNumber() + ": " + e.getMessage());
+                } finally {
+                    ticket = Math.max(ticket, account.releaseLockDeferringCommit());
+                }
+            }
+            if (ticket != 0) {
+                // One wait makes the whole chunk durable
+                try {
+                    run.commitWaiter.accept(ticket);
+                } catch (RuntimeException e) {
+                    chunkFailed = end - start;
+                    chunkInterest = 0;
+                    System.err.println("Error making interest postings durable: " + e.getMessage());
+                }
+            }
+            run.failed.add(chunkFailed);
+            run.interest.add(chunkInterest);
+            event.finish(end - start, chunkFailed, chunkInterest);
+            long processed = run.processed.addAndGet(end - start);
+            run.listener.onProgress(processed, Math.max(processed, run.total));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import java.time.Duration;
+
+import com.olim.bankaccountmanagementsystem.util.Money;
+
+/**
+ * Summary of one interest posting run
+ */
+public class InterestRunReport {
+    private final long accountsProcessed;
+    private final long accountsFailed;
+    private final long totalInterest; // In cents
+    private final Duration elapsed;
+
+    /**
+     * Constructor for a run summary
+     *
+     * @param accountsProcessed The number of savings accounts the run went through
+     * @param accountsFailed The number of accounts interest could not be posted to
+     * @param totalInterest The total interest posted in cents
+     * @param elapsed The wall clock time of the run
+     */
+    public InterestRunReport(long accountsProcessed, long accountsFailed, long totalInterest, Duration elapsed) {
+        this.accountsProcessed = accountsProcessed;
+        this.accountsFailed = accountsFailed;
+        this.totalInterest = totalInterest;
+        this.elapsed = elapsed;
+    }
+
+    public long getAccountsProcessed() {
+        return accountsProcessed;
+    }
+
+    public long getAccountsPosted() {
+        return accountsProcessed - accountsFailed;
+    }
+
+    public long getAccountsFailed() {
+        return accountsFailed;
+    }
+
+    public long getTotalInterest() {
+        return totalInterest;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Get the throughput of the run
+     *
+     * @return Accounts processed per second
+     */
+    public double getAccountsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : accountsProcessed * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Interest run: %d accounts posted, %d failed, $%s total in %d ms (%.0f accounts/s)",
+                getAccountsPosted(), accountsFailed, Money.format(totalInterest),
+                elapsed.toMillis(), getAccountsPerSecond());
+    }
+}
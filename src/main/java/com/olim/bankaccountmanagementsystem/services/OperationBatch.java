@@ -0,0 +1,104 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import java.util.Arrays;
+
+/**
+ * A list of deposits and withdrawals submitted to the banking system together
+ * Operations are kept in parallel primitive arrays, so a batch of thousands of
+ * operations is three arrays rather than thousands of objects.
+ *
+ * Operations on the same account are applied in the order they were added;
+ * operations on different accounts are independent of each other.
+ * A batch is not thread-safe and should be filled by one thread.
+ */
+public class OperationBatch {
+    static final byte DEPOSIT = 0;
+    static final byte WITHDRAWAL = 1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] accountNumbers;
+    private byte[] kinds;
+    private long[] amounts; // In cents
+    private int size;
+
+    /**
+     * Constructor for an empty batch
+     */
+    public OperationBatch() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor for an empty batch sized for the expected number of operations
+     *
+     * @param expectedSize The number of operations the batch will hold
+     */
+    public OperationBatch(int expectedSize) {
+        int capacity = Math.max(expectedSize, 1);
+        this.accountNumbers = new String[capacity];
+        this.kinds = new byte[capacity];
+        this.amounts = new long[capacity];
+    }
+
+    /**
+     * Add a deposit to the batch
+     *
+     * @param accountNumber The account to deposit into
+     * @param amount The amount in cents
+     * @return This batch, for chaining
+     */
+    public OperationBatch deposit(String accountNumber, long amount) {
+        add(accountNumber, DEPOSIT, amount);
+        return this;
+    }
+
+    /**
+     * Add a withdrawal to the batch
+     *
+     * @param accountNumber The account to withdraw from
+     * @param amount The amount in cents
+     * @return This batch, for chaining
+     */
+    public OperationBatch withdraw(String accountNumber, long amount) {
+        add(accountNumber, WITHDRAWAL, amount);
+        return this;
+    }
+
+    /**
+     * Get the number of operations in the batch
+     *
+     * @return The number of operations
+     */
+    public int size() {
+        return size;
+    }
+
+    String getAccountNumber(int index) {
+        return accountNumbers[index];
+    }
+
+    byte getKind(int index) {
+        return kinds[index];
+    }
+
+    long getAmount(int index) {
+        return amounts[index];
+    }
+
+    private void add(String accountNumber, byte kind, long amount) {
+        if (accountNumber == null) {
+            throw new IllegalArgumentException("Account number cannot be null");
+        }
+        if (size == kinds.length) {
+            int capacity = size * 2;
+            accountNumbers = Arrays.copyOf(accountNumbers, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        accountNumbers[size] = accountNumber;
+        kinds[size] = kind;
+        amounts[size] = amount;
+        size++;
+    }
+}
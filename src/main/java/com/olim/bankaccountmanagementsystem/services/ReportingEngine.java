@@ -0,0 +1,137 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.AccountType;
+import com.olim.bankaccountmanagementsystem.model.account.BalanceObserver;
+import com.olim.bankaccountmanagementsystem.model.account.FixedDepositAccount;
+
+/**
+ * Bank-wide totals for dashboards and regulatory reports
+ *
+ * Running totals are kept up to date as operations happen: every tracked account
+ * reports its balance changes, which are added to striped counters without
+ * locking, so reading the live totals takes microseconds at any number of accounts.
+ *
+ * {@link #recompute()} derives the same totals from the accounts themselves, as
+ * parallel reductions over the registry's per-type indexes. Nothing is copied
+ * and no account is type-checked; it is the reference the running totals can be
+ * checked against.
+ */
+public class ReportingEngine implements BalanceObserver {
+    private static final AccountType[] TYPES = AccountType.values();
+
+    private final AccountRegistry accounts;
+
+    // Running totals in cents
+    private final LongAdder[] depositsHeld = new LongAdder[TYPES.length]; // By account type ordinal
+    private final LongAdder overdraftExposure = new LongAdder();
+    private final ConcurrentMap<YearMonth, LongAdder> fixedDepositsMaturing = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for an engine over a registry
+     * Accounts only count towards the running totals once they are tracked
+     *
+     * @param accounts The registry holding all accounts
+     */
+    public ReportingEngine(AccountRegistry accounts) {
+        this.accounts = accounts;
+        for (AccountType type : TYPES) {
+            depositsHeld[type.ordinal()] = new LongAdder();
+        }
+    }
+
+    /**
+     * Start including an account in the running totals
+     *
+     * @param account The account to track
+     */
+    public void track(Account account) {
+        long balance = account.attachBalanceObserver(this);
+        onBalanceChanged(account, 0, balance);
+    }
+
+    /**
+     * Apply one balance change to the running totals
+     * Called by the tracked accounts under their own lock
+     */
+    @Override
+    public void onBalanceChanged(Account account, long oldBalance, long newBalance) {
+        long heldChange = Math.max(0, newBalance) - Math.max(0, oldBalance);
+        if (heldChange != 0) {
+            depositsHeld[account.getAccountType().ordinal()].add(heldChange);
+        }
+
+        switch (account.getAccountType()) {
+            case CURRENT:
+                long exposureChange = Math.max(0, -newBalance) - Math.max(0, -oldBalance);
+                if (exposureChange != 0) {
+                    overdraftExposure.add(exposureChange);
+                }
+                break;
+            case FIXED_DEPOSIT:
+                YearMonth month = YearMonth.from(((FixedDepositAccount) account).getMaturityDate());
+                fixedDepositsMaturing.computeIfAbsent(month, key -> new LongAdder()).add(newBalance - oldBalance);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Get the running totals
+     * Each total is exact for the operations completed before the call; operations
+     * in flight may be reflected in some totals and not yet in others
+     *
+     * @return The current totals
+     */
+    public BankTotals getLiveTotals() {
+        long[] held = new long[TYPES.length];
+        for (AccountType type : TYPES) {
+            held[type.ordinal()] = depositsHeld[type.ordinal()].sum();
+        }
+
+        SortedMap<YearMonth, Long> maturing = new TreeMap<>();
+        for (Map.Entry<YearMonth, LongAdder> entry : fixedDepositsMaturing.entrySet()) {
+            long amount = entry.getValue().sum();
+            if (amount != 0) {
+                maturing.put(entry.getKey(), amount);
+            }
+        }
+        return new BankTotals(held, overdraftExposure.sum(), maturing);
+    }
+
+    /**
+     * Compute the totals from scratch by reading every account's balance
+     * Each account type is reduced in parallel over the registry's type index
+     *
+     * @return The totals as of the scan
+     */
+    public BankTotals recompute() {
+        long[] held = new long[TYPES.length];
+        for (AccountType type : TYPES) {
+            held[type.ordinal()] = accounts.sumOfType(type, account -> Math.max(0, account.getBalance()));
+        }
+        long exposure = accounts.sumOfType(AccountType.CURRENT, account -> Math.max(0, -account.getBalance()));
+
+        ConcurrentMap<YearMonth, LongAdder> byMonth = new ConcurrentHashMap<>();
+        accounts.forEachOfType(AccountType.FIXED_DEPOSIT, account -> {
+            long balance = account.getBalance();
+            if (balance != 0) {
+                YearMonth month = YearMonth.from(((FixedDepositAccount) account).getMaturityDate());
+                byMonth.computeIfAbsent(month, key -> new LongAdder()).add(balance);
+            }
+        });
+
+        SortedMap<YearMonth, Long> maturing = new TreeMap<>();
+        byMonth.forEach((month, amount) -> maturing.put(month, amount.sum()));
+        return new BankTotals(held, exposure, maturing);
+    }
+}
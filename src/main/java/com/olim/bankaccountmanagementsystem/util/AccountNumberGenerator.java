@@ -1,35 +1,176 @@
 package com.olim.bankaccountmanagementsystem.util;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
- * Utility class for generating unique account numbers
- * This demonstrates utility classes and static methods in Java
+ * Allocates unique account numbers
+ * Numbers have the format XXX-NNNNNNNNNNC where XXX is the account type prefix,
+ * NNNNNNNNNN is a 10-digit sequence number and C is a Luhn check digit over it.
+ *
+ * Each prefix has its own sequence, split into stripes so that concurrent callers
+ * rarely touch the same counter: stripe i only hands out sequence numbers congruent
+ * to i modulo the stripe count, so two stripes can never produce the same number.
+ * Numbers are unique but not dense.
  */
 public class AccountNumberGenerator {
-    // Private constructor to prevent instantiation
-    private AccountNumberGenerator() {
-        throw new AssertionError("Utility class should not be instantiated");
-    }
-    
-    /**
-     * Generate a unique account number for a specific account type
-     * 
-     * @param accountType The account type code (e.g., "SAV", "CUR", "FIX")
-     * @return A unique account number
-     */
-    public static String generateAccountNumber(String accountType) {
-        // Format: XXX-YYYYMMDD-ZZZZZZ where:
-        // XXX is the account type code
-        // YYYYMMDD is the current date
-        // ZZZZZZ is a random 6-digit number
-        
-        java.time.LocalDate now = java.time.LocalDate.now();
-        String datePart = String.format("%04d%02d%02d", now.getYear(), now.getMonthValue(), now.getDayOfMonth());
-        
-        // Generate a random 6-digit number
-        int randomNum = ThreadLocalRandom.current().nextInt(100000, 1000000);
-        
-        return String.format("%s-%s-%06d", accountType, datePart, randomNum);
-    }
-}
\ No newline at end of file
+    private static final int SEQUENCE_DIGITS = 10;
+    private static final long MAX_SEQUENCE = 9_999_999_999L;
+    private static final int PADDING = 8; // Longs per stripe, so each counter has its own cache line
+
+    private final int stripes;
+    private final ConcurrentMap<String, AtomicLongArray> sequences = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for an allocator with one stripe per available processor
+     */
+    public AccountNumberGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for an allocator with a specific number of stripes
+     *
+     * @param stripes The number of independent counters per prefix
+     */
+    public AccountNumberGenerator(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("At least one stripe is required");
+        }
+        this.stripes = stripes;
+    }
+
+    /**
+     * Allocate the next account number for a prefix
+     *
+     * @param prefix The account type prefix (e.g., "SAV", "CUR", "FIX")
+     * @return A number never returned before by this allocator or passed to {@link #observe(String)}
+     * @throws IllegalStateException if the prefix has run out of numbers
+     */
+    public String next(String prefix) {
+        AtomicLongArray counters = sequences.computeIfAbsent(prefix, p -> new AtomicLongArray(stripes * PADDING));
+        int stripe = ThreadLocalRandom.current().nextInt(stripes);
+        long sequence = counters.getAndIncrement(stripe * PADDING) * stripes + stripe;
+        if (sequence > MAX_SEQUENCE) {
+            throw new IllegalStateException("Account numbers exhausted for prefix " + prefix);
+        }
+        return format(prefix, sequence);
+    }
+
+    /**
+     * Note an existing account number so it is never allocated again
+     * Used when accounts are restored on startup; numbers in other formats are ignored
+     *
+     * @param accountNumber The existing account number
+     */
+    public void observe(String accountNumber) {
+        int separator = accountNumber.indexOf('-');
+        if (separator < 0 || accountNumber.length() != separator + SEQUENCE_DIGITS + 2) {
+            return;
+        }
+
+        long sequence = 0;
+        for (int i = separator + 1; i <= separator + SEQUENCE_DIGITS; i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return;
+            }
+            sequence = sequence * 10 + (c - '0');
+        }
+
+        // Move every stripe past the observed number
+        long floor = sequence / stripes + 1;
+        AtomicLongArray counters = sequences.computeIfAbsent(accountNumber.substring(0, separator),
+                p -> new AtomicLongArray(stripes * PADDING));
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            counters.accumulateAndGet(stripe * PADDING, floor, Math::max);
+        }
+    }
+
+    /**
+     * Check the format and check digit of an account number
+     *
+     * @param accountNumber The account number to check
+     * @return true if it is a well-formed number with a correct check digit
+     */
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null) {
+            return false;
+        }
+        int separator = accountNumber.indexOf('-');
+        if (separator < 1 || accountNumber.length() != separator + SEQUENCE_DIGITS + 2) {
+            return false;
+        }
+
+        char[] digits = new char[SEQUENCE_DIGITS];
+        accountNumber.getChars(separator + 1, separator + 1 + SEQUENCE_DIGITS, digits, 0);
+        for (char c : digits) {
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return accountNumber.charAt(accountNumber.length() - 1) == checkDigit(digits, 0);
+    }
+
+    /**
+     * Get the sequence number of a well-formed account number
+     *
+     * @param accountNumber The account number
+     * @return The sequence number, or -1 if the number is malformed or its check digit is wrong
+     */
+    public static long sequenceOf(String accountNumber) {
+        if (!isValid(accountNumber)) {
+            return -1;
+        }
+        int start = accountNumber.indexOf('-') + 1;
+        long sequence = 0;
+        for (int i = start; i < start + SEQUENCE_DIGITS; i++) {
+            sequence = sequence * 10 + (accountNumber.charAt(i) - '0');
+        }
+        return sequence;
+    }
+
+    /**
+     * Build PREFIX-NNNNNNNNNNC into a single char array, without String.format
+     *
+     * @param prefix The account type prefix
+     * @param sequence The sequence number, at most 10 digits
+     * @return The account number
+     */
+    public static String format(String prefix, long sequence) {
+        int length = prefix.length();
+        char[] chars = new char[length + SEQUENCE_DIGITS + 2];
+        prefix.getChars(0, length, chars, 0);
+        chars[length] = '-';
+
+        long remaining = sequence;
+        for (int i = length + SEQUENCE_DIGITS; i > length; i--) {
+            chars[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        chars[chars.length - 1] = checkDigit(chars, length + 1);
+        return new String(chars);
+    }
+
+    /**
+     * Luhn check digit over the SEQUENCE_DIGITS digits starting at offset
+     */
+    private static char checkDigit(char[] digits, int offset) {
+        int sum = 0;
+        boolean doubled = true; // The rightmost digit is doubled, since the check digit follows it
+        for (int i = offset + SEQUENCE_DIGITS - 1; i >= offset; i--) {
+            int digit = digits[i] - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+}
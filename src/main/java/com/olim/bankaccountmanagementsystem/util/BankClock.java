@@ -0,0 +1,104 @@
+package com.olim.bankaccountmanagementsystem.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The clock all banking operations read the time from
+ * This demonstrates utility classes and static methods in Java
+ *
+ * It defaults to the system clock in the default time zone. Tests, benchmarks
+ * and replay runs can install a fixed clock for deterministic results, and busy
+ * systems can install a {@link CachedClock} so that reading the time is a single
+ * volatile read.
+ */
+public final class BankClock {
+    // The installed clock
+    private static volatile Clock clock = Clock.systemDefaultZone();
+
+    // Private constructor to prevent instantiation
+    private BankClock() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Install the clock used from now on
+     *
+     * @param newClock The clock to use
+     */
+    public static void setClock(Clock newClock) {
+        if (newClock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        clock = newClock;
+    }
+
+    /**
+     * Get the installed clock
+     *
+     * @return The clock
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Get the current time without allocating
+     *
+     * @return Milliseconds since the epoch
+     */
+    public static long millis() {
+        return clock.millis();
+    }
+
+    /**
+     * Get the current date in the clock's time zone
+     *
+     * @return Today's date
+     */
+    public static LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * Get the time zone dates and times are shown in
+     *
+     * @return The clock's time zone
+     */
+    public static ZoneId zone() {
+        return clock.getZone();
+    }
+
+    /**
+     * Convert an epoch timestamp to a date and time in the clock's time zone
+     *
+     * @param epochMillis Milliseconds since the epoch
+     * @return The local date and time
+     */
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone());
+    }
+
+    /**
+     * Convert a date and time in the clock's time zone to an epoch timestamp
+     *
+     * @param dateTime The local date and time
+     * @return Milliseconds since the epoch
+     */
+    public static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(zone()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Get the first moment of a date in the clock's time zone
+     *
+     * @param date The date
+     * @return Milliseconds since the epoch at the start of that day
+     */
+    public static long startOfDayMillis(LocalDate date) {
+        return date.atStartOfDay(zone()).toInstant().toEpochMilli();
+    }
+}
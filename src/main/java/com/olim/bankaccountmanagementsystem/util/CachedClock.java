@@ -0,0 +1,93 @@
+package com.olim.bankaccountmanagementsystem.util;
+
+import java.io.Closeable;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A clock that refreshes its time from another clock at a fixed resolution
+ * This demonstrates inheritance and threads in Java OOP
+ *
+ * Reading the time is a single volatile read instead of a system call, at the
+ * cost of the time lagging by up to one resolution step. A daemon thread does
+ * the refreshing until the clock is closed.
+ */
+public class CachedClock extends Clock implements Closeable {
+    // The time shared by this clock and its views in other zones
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    /**
+     * Constructor for a clock caching the given source
+     *
+     * @param source The clock to read the time from
+     * @param resolution How often the cached time is refreshed
+     */
+    public CachedClock(Clock source, Duration resolution) {
+        if (resolution.isNegative() || resolution.isZero()) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        this.ticker = new Ticker(source, resolution.toNanos());
+        this.zone = source.getZone();
+        Thread thread = new Thread(ticker, "cached-clock");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private CachedClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    @Override
+    public long millis() {
+        return ticker.currentMillis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(ticker.currentMillis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId newZone) {
+        return newZone.equals(zone) ? this : new CachedClock(ticker, newZone);
+    }
+
+    /**
+     * Stop refreshing the time, for this clock and all its views
+     */
+    @Override
+    public void close() {
+        ticker.closed = true;
+    }
+
+    private static final class Ticker implements Runnable {
+        private final Clock source;
+        private final long resolutionNanos;
+        private volatile long currentMillis;
+        private volatile boolean closed;
+
+        Ticker(Clock source, long resolutionNanos) {
+            this.source = source;
+            this.resolutionNanos = resolutionNanos;
+            this.currentMillis = source.millis();
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                currentMillis = source.millis();
+                LockSupport.parkNanos(resolutionNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.olim.bankaccountmanagementsystem.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Utility class for fixed-point money arithmetic
+ * All amounts in the model are plain longs in minor units (cents), so the
+ * hot path never allocates and never drifts the way double arithmetic does.
+ * Conversion to and from decimal text only happens at the UI and export edges.
+ */
+public final class Money {
+    /** Number of decimal places in the minor unit */
+    public static final int SCALE = 2;
+
+    /** Minor units per major unit (cents per dollar) */
+    public static final long MINOR_PER_MAJOR = 100L;
+
+    /** Rounding applied when posting interest (banker's rounding, no bias over many postings) */
+    public static final RoundingMode INTEREST_ROUNDING = RoundingMode.HALF_EVEN;
+
+    // Rates are converted to billionths before multiplying, e.g. 0.05 -> 50,000,000
+    private static final long RATE_SCALE = 1_000_000_000L;
+
+    // Private constructor to prevent instantiation
+    private Money() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Create an amount from whole major units and minor units
+     *
+     * @param major The whole units (e.g. dollars)
+     * @param minor The minor units (e.g. cents), 0 to 99
+     * @return The amount in minor units
+     */
+    public static long of(long major, int minor) {
+        if (minor < 0 || minor >= MINOR_PER_MAJOR) {
+            throw new IllegalArgumentException("Minor units out of range: " + minor);
+        }
+        long whole = Math.multiplyExact(major, MINOR_PER_MAJOR);
+        return major < 0 ? Math.subtractExact(whole, minor) : Math.addExact(whole, minor);
+    }
+
+    /**
+     * Add two amounts, failing instead of silently overflowing
+     *
+     * @param a The first amount
+     * @param b The second amount
+     * @return a + b
+     */
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Subtract two amounts, failing instead of silently overflowing
+     *
+     * @param a The amount to subtract from
+     * @param b The amount to subtract
+     * @return a - b
+     */
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Multiply an amount by a rate (e.g. an interest rate of 0.05) with explicit rounding
+     * The rate is fixed to nine decimal places and the product is computed in long
+     * arithmetic; only products that would overflow a long fall back to BigDecimal
+     *
+     * @param amount The amount in minor units
+     * @param rate The rate to apply
+     * @param mode The rounding mode for the fractional minor unit
+     * @return The rounded product in minor units
+     */
+    public static long applyRate(long amount, double rate, RoundingMode mode) {
+        long scaledRate = Math.round(rate * RATE_SCALE);
+        long high = Math.multiplyHigh(amount, scaledRate);
+        long low = amount * scaledRate;
+
+        // The product fits in a long when the high word is just the sign extension of the low word
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divide(low, RATE_SCALE, mode);
+        }
+        return BigDecimal.valueOf(amount)
+                .multiply(BigDecimal.valueOf(scaledRate))
+                .divide(BigDecimal.valueOf(RATE_SCALE), 0, mode)
+                .longValueExact();
+    }
+
+    /**
+     * Divide two longs rounding the quotient with the given mode
+     * Same semantics as BigDecimal division at scale 0, without the allocation
+     *
+     * @param dividend The dividend
+     * @param divisor The divisor
+     * @param mode The rounding mode
+     * @return The rounded quotient
+     * @throws ArithmeticException if mode is UNNECESSARY and the division is inexact
+     */
+    public static long divide(long dividend, long divisor, RoundingMode mode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        // Sign of the exact quotient: -1 or 1
+        long signum = ((dividend ^ divisor) >> 63) | 1;
+        boolean increment;
+        switch (mode) {
+            case UNNECESSARY:
+                throw new ArithmeticException("Rounding necessary");
+            case UP:
+                increment = true;
+                break;
+            case DOWN:
+                increment = false;
+                break;
+            case CEILING:
+                increment = signum > 0;
+                break;
+            case FLOOR:
+                increment = signum < 0;
+                break;
+            default:
+                // HALF_UP, HALF_DOWN, HALF_EVEN: compare the remainder with half the divisor
+                long absRemainder = Math.abs(remainder);
+                int comparison = Long.compare(absRemainder, Math.abs(divisor) - absRemainder);
+                if (comparison != 0) {
+                    increment = comparison > 0;
+                } else if (mode == RoundingMode.HALF_UP) {
+                    increment = true;
+                } else if (mode == RoundingMode.HALF_DOWN) {
+                    increment = false;
+                } else {
+                    increment = (quotient & 1) != 0;
+                }
+                break;
+        }
+        return increment ? quotient + signum : quotient;
+    }
+
+    /**
+     * Parse decimal text (e.g. "12.5" or "100.25") into minor units
+     * Used at the UI edge only
+     *
+     * @param text The decimal text
+     * @return The amount in minor units
+     * @throws NumberFormatException if the text is not a number or has more than two decimals
+     */
+    public static long parse(String text) throws NumberFormatException {
+        try {
+            return new BigDecimal(text.trim()).movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount must have at most " + SCALE + " decimal places: " + text);
+        }
+    }
+
+    /**
+     * Format an amount as decimal text with two decimals (e.g. -1234.50)
+     *
+     * @param amount The amount in minor units
+     * @return The formatted amount
+     */
+    public static String format(long amount) {
+        return appendTo(new StringBuilder(24), amount).toString();
+    }
+
+    /**
+     * Append an amount as decimal text with two decimals without intermediate strings
+     *
+     * @param builder The builder to append to
+     * @param amount The amount in minor units
+     * @return The same builder
+     */
+    public static StringBuilder appendTo(StringBuilder builder, long amount) {
+        long major = amount / MINOR_PER_MAJOR;
+        long minor = Math.abs(amount % MINOR_PER_MAJOR);
+        if (amount < 0 && major == 0) {
+            builder.append('-');
+        }
+        builder.append(major).append('.');
+        if (minor < 10) {
+            builder.append('0');
+        }
+        return builder.append(minor);
+    }
+
+    /**
+     * Convert an amount to a BigDecimal for reports
+     *
+     * @param amount The amount in minor units
+     * @return The amount as a BigDecimal with scale 2
+     */
+    public static BigDecimal toBigDecimal(long amount) {
+        return BigDecimal.valueOf(amount, SCALE);
+    }
+}
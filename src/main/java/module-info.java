@@ -9,9 +9,12 @@ module com.olim.bankaccountmanagementsystem {
             requires org.kordamp.ikonli.javafx;
             requires org.kordamp.bootstrapfx.core;
             requires eu.hansolo.tilesfx;
+            requires java.management;
+            requires jdk.jfr;
         
     opens com.olim.bankaccountmanagementsystem to javafx.fxml;
     opens com.olim.bankaccountmanagementsystem.controller to javafx.fxml;
     exports com.olim.bankaccountmanagementsystem;
     exports com.olim.bankaccountmanagementsystem.controller;
+    exports com.olim.bankaccountmanagementsystem.metrics to java.management;
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.olim.bankaccountmanagementsystem.model.account;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.junit.jupiter.api.Test;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+
+class TransactionListenerFailureTest {
+    private static final TransactionListener FAILING_LISTENER = new TransactionListener() {
+        @Override
+        public long onTransaction(Account account, Transaction transaction) {
+            throw new UncheckedIOException(new IOException("Journal is closed"));
+        }
+    };
+
+    @Test
+    void failedDepositLeavesAccountUnchanged() {
+        SavingsAccount account = new SavingsAccount("SAV-1", 10_000, new Person("Saver", "saver@example.com"), 0, 0.01);
+        int history = account.getTransactionHistory().getAllTransactions().size();
+        account.setTransactionListener(FAILING_LISTENER);
+
+        assertThrows(UncheckedIOException.class, () -> account.deposit(2_500));
+
+        assertEquals(10_000, account.getBalance());
+        assertEquals(history, account.getTransactionHistory().getAllTransactions().size());
+        assertEquals(10_000, account.getDailySummary(BankClock.today()).getClosingBalance());
+    }
+
+    @Test
+    void failedTransferLeavesBothAccountsUnchanged() {
+        SavingsAccount source = new SavingsAccount("SAV-1", 10_000, new Person("Source", "source@example.com"), 0, 0.01);
+        CurrentAccount target = new CurrentAccount("CUR-1", 5_000, new Person("Target", "target@example.com"), 0);
+        source.setTransactionListener(FAILING_LISTENER);
+        target.setTransactionListener(FAILING_LISTENER);
+
+        assertThrows(UncheckedIOException.class, () -> source.transferTo(target, 4_000));
+
+        assertEquals(10_000, source.getBalance());
+        assertEquals(5_000, target.getBalance());
+        assertEquals(1, source.getTransactionHistory().getAllTransactions().size());
+        assertEquals(1, target.getTransactionHistory().getAllTransactions().size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.olim.bankaccountmanagementsystem.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalTest {
+    private static final byte TYPE = 7;
+    private static final long SMALL_SEGMENT_SIZE = 128;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEveryRecordAcrossSegmentRolls() throws IOException {
+        try (Journal journal = Journal.open(directory, SMALL_SEGMENT_SIZE, (sequence, type, payload) -> { })) {
+            for (long value = 1; value <= 100; value++) {
+                journal.sync(append(journal, value));
+            }
+        }
+        assertTrue(segments().size() > 5, "Small segments should have been rolled many times");
+
+        List<Long> values = new ArrayList<>();
+        try (Journal journal = Journal.open(directory, SMALL_SEGMENT_SIZE, (sequence, type, payload) -> {
+            assertEquals(TYPE, type);
+            assertEquals(sequence, payload.getLong());
+            values.add(sequence);
+        })) {
+            assertEquals(100, journal.getLastSequence());
+            assertEquals(101, append(journal, 101));
+        }
+        assertEquals(100, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i + 1, values.get(i));
+        }
+    }
+
+    @Test
+    void cutsOffTornRecordAtTheTail() throws IOException {
+        try (Journal journal = Journal.open(directory, (sequence, type, payload) -> { })) {
+            for (long value = 1; value <= 10; value++) {
+                journal.sync(append(journal, value));
+            }
+        }
+        // Lose the last bytes of the final record, as a crash in the middle of a write would
+        Path last = segments().get(segments().size() - 1);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        List<Long> values = new ArrayList<>();
+        try (Journal journal = Journal.open(directory, (sequence, type, payload) -> values.add(payload.getLong()))) {
+            assertEquals(9, journal.getLastSequence());
+            journal.sync(append(journal, 10));
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L), values);
+
+        // The record written after recovery replaces the torn one
+        values.clear();
+        try (Journal journal = Journal.open(directory, (sequence, type, payload) -> values.add(payload.getLong()))) {
+            assertEquals(10, journal.getLastSequence());
+        }
+        assertEquals(10, values.size());
+    }
+
+    @Test
+    void skipsRecordsCoveredBySnapshot() throws IOException {
+        try (Journal journal = Journal.open(directory, (sequence, type, payload) -> { })) {
+            for (long value = 1; value <= 10; value++) {
+                journal.sync(append(journal, value));
+            }
+        }
+
+        List<Long> sequences = new ArrayList<>();
+        try (Journal journal = Journal.open(directory, Journal.DEFAULT_SEGMENT_SIZE, 6,
+                (sequence, type, payload) -> sequences.add(sequence))) {
+            assertEquals(10, journal.getLastSequence());
+        }
+        assertEquals(List.of(7L, 8L, 9L, 10L), sequences);
+    }
+
+    @Test
+    void refusesToOpenWithRecordsMissingAfterSnapshot() throws IOException {
+        try (Journal journal = Journal.open(directory, SMALL_SEGMENT_SIZE, (sequence, type, payload) -> { })) {
+            for (long value = 1; value <= 50; value++) {
+                journal.sync(append(journal, value));
+            }
+            journal.deleteSegmentsUpTo(30);
+        }
+
+        assertThrows(IOException.class, () -> Journal.open(directory, SMALL_SEGMENT_SIZE, 10,
+                (sequence, type, payload) -> { }));
+    }
+
+    @Test
+    void discardsPartialRecordWhenWriterFails() throws IOException {
+        try (Journal journal = Journal.open(directory, (sequence, type, payload) -> { })) {
+            append(journal, 1);
+            assertThrows(IllegalStateException.class, () -> journal.append(TYPE, buffer -> {
+                buffer.putLong(99);
+                throw new IllegalStateException("Writer failed");
+            }));
+            journal.sync(append(journal, 2));
+        }
+
+        List<Long> values = new ArrayList<>();
+        try (Journal journal = Journal.open(directory, (sequence, type, payload) -> values.add(payload.getLong()))) {
+            assertEquals(2, journal.getLastSequence());
+        }
+        assertEquals(List.of(1L, 2L), values);
+    }
+
+    private static long append(Journal journal, long value) {
+        return journal.append(TYPE, buffer -> buffer.putLong(value));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
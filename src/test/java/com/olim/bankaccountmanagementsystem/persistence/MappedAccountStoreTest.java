@@ -0,0 +1,41 @@
+package com.olim.bankaccountmanagementsystem.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.util.TransactionIdGenerator;
+
+class MappedAccountStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void issuesIdsAboveTheHighestStoredIdEvenIfItIsNotLast() throws IOException {
+        // Posters draw IDs before taking slots, so a lower ID can land after a higher one
+        long highest = TransactionIdGenerator.next() + (1L << 40);
+        try (MappedAccountStore store = MappedAccountStore.open(directory)) {
+            int index = store.openSavingsAccount(1L, 0, 0, 0.01).getIndex();
+            ReentrantLock lock = store.lockFor(index);
+            lock.lock();
+            try {
+                store.post(index, 100, TransactionType.DEPOSIT, MappedAccountStore.NOTE_NONE,
+                        MappedAccountStore.NONE, highest, 0);
+                store.post(index, 100, TransactionType.DEPOSIT, MappedAccountStore.NOTE_NONE,
+                        MappedAccountStore.NONE, TransactionIdGenerator.next(), 0);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        try (MappedAccountStore store = MappedAccountStore.open(directory)) {
+            assertTrue(TransactionIdGenerator.next() > highest);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.olim.bankaccountmanagementsystem.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.CurrentAccount;
+import com.olim.bankaccountmanagementsystem.model.account.FixedDepositAccount;
+import com.olim.bankaccountmanagementsystem.model.account.SavingsAccount;
+import com.olim.bankaccountmanagementsystem.model.transaction.Transaction;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+
+class RecordCodecTest {
+    private static final Person OWNER = new Person("P-1", "Ange Uwase", "ange@example.com");
+
+    @Test
+    void roundTripsSavingsAccount() {
+        SavingsAccount decoded = (SavingsAccount) roundTrip(
+                new SavingsAccount("SAV-00000000001", 123_456L, OWNER, 10_000L, 0.035));
+
+        assertEquals(10_000L, decoded.getMinBalance());
+        assertEquals(0.035, decoded.getInterestRate(), 1e-9);
+    }
+
+    @Test
+    void roundTripsCurrentAccountWithNegativeBalance() {
+        CurrentAccount account = new CurrentAccount("CUR-00000000002", 1_000L, OWNER, 50_000L);
+        account.withdraw(21_000L);
+        CurrentAccount decoded = (CurrentAccount) roundTrip(account);
+
+        assertEquals(50_000L, decoded.getOverdraftLimit());
+    }
+
+    @Test
+    void roundTripsFixedDepositAccount() {
+        FixedDepositAccount account = new FixedDepositAccount("FIX-00000000003", 1_000_000L, OWNER, 12, 0.07);
+        FixedDepositAccount decoded = (FixedDepositAccount) roundTrip(account);
+
+        assertEquals(1_000_000L, decoded.getDepositAmount());
+        assertEquals(0.07, decoded.getInterestRate(), 1e-9);
+        assertEquals(account.getMaturityDate(), decoded.getMaturityDate());
+    }
+
+    @Test
+    void roundTripsEveryTransactionType() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (TransactionType type : TransactionType.values()) {
+            Transaction transaction = new Transaction(0x1234_5678_9ABC_DEFL + type.getCode(), 25_075L,
+                    1_700_000_000_123L, type, "Période " + type.getDescription() + " 💰", 42L);
+            buffer.clear();
+            RecordCodec.encodeTransaction(buffer, transaction);
+            buffer.flip();
+            Transaction decoded = RecordCodec.decodeTransaction(buffer);
+
+            assertFalse(buffer.hasRemaining());
+            assertEquals(transaction.getId(), decoded.getId());
+            assertEquals(transaction.getAmount(), decoded.getAmount());
+            assertEquals(transaction.getTimestamp(), decoded.getTimestamp());
+            assertEquals(type, decoded.getType());
+            assertEquals(transaction.getDescription(), decoded.getDescription());
+            assertEquals(42L, decoded.getLinkedTransactionId());
+        }
+    }
+
+    @Test
+    void rejectsRecordVersionNewerThanKnown() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        RecordCodec.encodeTransaction(buffer, new Transaction(1L, 100L, TransactionType.DEPOSIT, "Deposit"));
+        buffer.flip();
+        buffer.put(1, (byte) 3); // Version byte
+
+        assertThrows(IllegalArgumentException.class, () -> RecordCodec.decodeTransaction(buffer));
+    }
+
+    @Test
+    void encodesLinkedIdAsFixedLongOnlyWhenPresent() {
+        ByteBuffer unlinked = ByteBuffer.allocate(256);
+        RecordCodec.encodeTransaction(unlinked, new Transaction(1L, 100L, 0L, TransactionType.DEPOSIT, "Deposit", 0L));
+        ByteBuffer linked = ByteBuffer.allocate(256);
+        RecordCodec.encodeTransaction(linked, new Transaction(1L, 100L, 0L, TransactionType.DEPOSIT, "Deposit",
+                0x0523_4F25_3B80_0001L));
+
+        assertEquals(Long.BYTES, linked.position() - unlinked.position());
+        unlinked.flip();
+        assertEquals(0L, RecordCodec.decodeTransaction(unlinked).getLinkedTransactionId());
+    }
+
+    @Test
+    void readsVersionOneTransactions() {
+        ByteBuffer body = ByteBuffer.allocate(256);
+        body.putLong(7L);
+        RecordCodec.putVarLong(body, 2_500L);
+        RecordCodec.putSignedVarLong(body, 1_700_000_000_123L);
+        body.put(TransactionType.TRANSFER_IN.getCode());
+        RecordCodec.putString(body, "Transfer from SAV-1");
+        RecordCodec.putVarLong(body, 0x0523_4F25_3B80_0001L);
+        body.flip();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.put(RecordCodec.TRANSACTION).put((byte) 1);
+        RecordCodec.putVarLong(buffer, body.remaining());
+        buffer.put(body);
+        buffer.flip();
+
+        Transaction decoded = RecordCodec.decodeTransaction(buffer);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(7L, decoded.getId());
+        assertEquals(TransactionType.TRANSFER_IN, decoded.getType());
+        assertEquals("Transfer from SAV-1", decoded.getDescription());
+        assertEquals(0x0523_4F25_3B80_0001L, decoded.getLinkedTransactionId());
+    }
+
+    @Test
+    void roundTripsVarLongsAtTheirLimits() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (long value : new long[] {0, 1, 127, 128, Long.MAX_VALUE, Long.MIN_VALUE, -1}) {
+            buffer.clear();
+            RecordCodec.putSignedVarLong(buffer, value);
+            buffer.flip();
+            assertEquals(value, RecordCodec.getSignedVarLong(buffer));
+        }
+    }
+
+    private static Account roundTrip(Account account) {
+        ByteBuffer buffer = ByteBuffer.allocate(512);
+        RecordCodec.encodeAccount(buffer, account);
+        buffer.flip();
+        Account decoded = RecordCodec.decodeAccount(buffer);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(account.getAccountType(), decoded.getAccountType());
+        assertEquals(account.getAccountNumber(), decoded.getAccountNumber());
+        assertEquals(account.getBalance(), decoded.getBalance());
+        assertEquals(account.getDateCreated(), decoded.getDateCreated());
+        assertEquals(OWNER.getId(), decoded.getOwner().getId());
+        assertEquals(OWNER.getName(), decoded.getOwner().getName());
+        assertEquals(OWNER.getContactInfo(), decoded.getOwner().getContactInfo());
+        return decoded;
+    }
+}
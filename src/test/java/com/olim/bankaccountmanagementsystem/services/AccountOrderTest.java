@@ -0,0 +1,57 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.SavingsAccount;
+
+class AccountOrderTest {
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void listsAccountsInCreationOrderAcrossRestarts() throws IOException {
+        List<String> created = new ArrayList<>();
+        try (BankingSystem bank = new BankingSystem(dataDirectory)) {
+            for (int i = 0; i < 5; i++) {
+                created.add(bank.createCurrentAccount(
+                        new Person("Current " + i, "c" + i + "@example.com"), 0, 0).getAccountNumber());
+                created.add(bank.createSavingsAccount(
+                        new Person("Savings " + i, "s" + i + "@example.com"), 0, 0, 0.01).getAccountNumber());
+            }
+            assertEquals(created, numbers(bank.getAllAccounts()));
+            bank.snapshot();
+        }
+
+        try (BankingSystem bank = new BankingSystem(dataDirectory)) {
+            assertEquals(created, numbers(bank.getAllAccounts()));
+        }
+    }
+
+    @Test
+    void mergesShardsInRegistrationOrder() {
+        List<Account> created = new ArrayList<>();
+        try (AccountRegistry registry = new AccountRegistry(4)) {
+            for (int i = 0; i < 1_000; i++) {
+                Account account = new SavingsAccount(
+                        "SAV-" + i, 0, new Person("Owner " + i, "o" + i + "@example.com"), 0, 0.01);
+                registry.register(account);
+                created.add(account);
+            }
+            assertEquals(created, registry.getAll());
+        }
+    }
+
+    private static List<String> numbers(List<Account> accounts) {
+        return accounts.stream().map(Account::getAccountNumber).toList();
+    }
+}
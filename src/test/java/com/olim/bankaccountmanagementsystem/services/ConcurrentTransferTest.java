@@ -0,0 +1,86 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+
+class ConcurrentTransferTest {
+    private static final int TRANSFERS_PER_THREAD = 2_000;
+    private static final long INITIAL_BALANCE = 1_000_000;
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void oppositeTransfersConserveMoneyWithoutDeadlock() throws Exception {
+        try (BankingSystem bank = new BankingSystem()) {
+            runOppositeTransfers(bank);
+        }
+    }
+
+    @Test
+    void oppositeJournaledTransfersConserveMoneyAcrossRestart() throws Exception {
+        String[] numbers;
+        try (BankingSystem bank = new BankingSystem(dataDirectory)) {
+            numbers = runOppositeTransfers(bank);
+        }
+        try (BankingSystem bank = new BankingSystem(dataDirectory)) {
+            long total = bank.findAccountByNumber(numbers[0]).getBalance()
+                    + bank.findAccountByNumber(numbers[1]).getBalance();
+            assertEquals(2 * INITIAL_BALANCE, total);
+        }
+    }
+
+    /**
+     * Move money back and forth between two accounts from four threads at once
+     *
+     * @return The numbers of the two accounts
+     */
+    private static String[] runOppositeTransfers(BankingSystem bank) throws Exception {
+        Account first = bank.createSavingsAccount(new Person("First", "first@example.com"), INITIAL_BALANCE, 0, 0.01);
+        Account second = bank.createSavingsAccount(new Person("Second", "second@example.com"), INITIAL_BALANCE, 0, 0.01);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?>[] workers = new Future<?>[4];
+            for (int i = 0; i < workers.length; i++) {
+                Account source = i % 2 == 0 ? first : second;
+                Account target = source == first ? second : first;
+                long amount = i + 1;
+                workers[i] = executor.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < TRANSFERS_PER_THREAD; n++) {
+                        source.transferTo(target, amount);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+            }, "Opposite transfers deadlocked");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(2 * INITIAL_BALANCE, first.getBalance() + second.getBalance());
+        // Every transfer succeeds since no account can run dry, so each side has one record per transfer
+        assertEquals(1 + 2L * TRANSFERS_PER_THREAD * 2, first.getTransactionHistory().getAllTransactions().size());
+        return new String[] {first.getAccountNumber(), second.getAccountNumber()};
+    }
+}
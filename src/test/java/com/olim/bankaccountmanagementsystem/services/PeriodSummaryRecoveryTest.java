@@ -0,0 +1,84 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+import com.olim.bankaccountmanagementsystem.model.account.PeriodSummary;
+import com.olim.bankaccountmanagementsystem.model.transaction.TransactionType;
+import com.olim.bankaccountmanagementsystem.util.BankClock;
+
+class PeriodSummaryRecoveryTest {
+    private static final LocalDate DAY_ONE = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path dataDirectory;
+
+    @AfterEach
+    void restoreClock() {
+        BankClock.setClock(Clock.systemDefaultZone());
+    }
+
+    @Test
+    void restoresBalancesAndPeriodSummariesFromSnapshotAndJournalTail() throws IOException {
+        String spenderNumber;
+        String saverNumber;
+        setDay(DAY_ONE);
+        try (BankingSystem bank = new BankingSystem(dataDirectory)) {
+            Account spender = bank.createCurrentAccount(new Person("Spender", "spender@example.com"), 0, 0);
+            Account saver = bank.createSavingsAccount(new Person("Saver", "saver@example.com"), 100_000, 0, 0.02);
+            spenderNumber = spender.getAccountNumber();
+            saverNumber = saver.getAccountNumber();
+            // More transactions than a snapshot keeps, so the totals cannot come from the history alone
+            for (int i = 0; i < 150; i++) {
+                spender.deposit(100);
+            }
+            saver.transferTo(spender, 10_000);
+
+            setDay(DAY_ONE.plusDays(1));
+            spender.withdraw(5_000);
+            bank.snapshot();
+
+            setDay(DAY_ONE.plusDays(2));
+            spender.deposit(2_500); // Only in the journal
+        }
+
+        try (BankingSystem bank = new BankingSystem(dataDirectory)) {
+            Account spender = bank.findAccountByNumber(spenderNumber);
+            assertEquals(22_500, spender.getBalance());
+            assertEquals(90_000, bank.findAccountByNumber(saverNumber).getBalance());
+
+            PeriodSummary dayOne = spender.getDailySummary(DAY_ONE);
+            assertEquals(0, dayOne.getOpeningBalance());
+            assertEquals(25_000, dayOne.getTotalCredits());
+            assertEquals(150, dayOne.getCount(TransactionType.DEPOSIT));
+            assertEquals(1, dayOne.getCount(TransactionType.TRANSFER_IN));
+            assertEquals(25_000, dayOne.getClosingBalance());
+
+            PeriodSummary dayTwo = spender.getDailySummary(DAY_ONE.plusDays(1));
+            assertEquals(25_000, dayTwo.getOpeningBalance());
+            assertEquals(5_000, dayTwo.getTotalDebits());
+            assertEquals(20_000, dayTwo.getClosingBalance());
+
+            PeriodSummary month = spender.getMonthlySummary(YearMonth.from(DAY_ONE));
+            assertEquals(0, month.getOpeningBalance());
+            assertEquals(27_500, month.getTotalCredits());
+            assertEquals(22_500, month.getClosingBalance());
+        }
+    }
+
+    private static void setDay(LocalDate day) {
+        BankClock.setClock(Clock.fixed(day.atTime(10, 0).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,54 @@
+package com.olim.bankaccountmanagementsystem.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.olim.bankaccountmanagementsystem.model.Person;
+import com.olim.bankaccountmanagementsystem.model.account.Account;
+
+class SnapshotFallbackTest {
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void fallsBackToOlderSnapshotWithoutLosingTransactions() throws IOException {
+        String number;
+        try (BankingSystem bank = new BankingSystem(dataDirectory)) {
+            Account account = bank.createSavingsAccount(new Person("Owner", "owner@example.com"), 10_000, 0, 0.01);
+            number = account.getAccountNumber();
+            bank.snapshot();
+            account.deposit(5_000);
+            bank.snapshot();
+            account.deposit(100);
+        }
+        damage(newestSnapshot());
+
+        try (BankingSystem bank = new BankingSystem(dataDirectory)) {
+            assertEquals(15_100, bank.findAccountByNumber(number).getBalance());
+        }
+    }
+
+    private Path newestSnapshot() throws IOException {
+        try (Stream<Path> files = Files.list(dataDirectory.resolve("snapshots"))) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".snap"))
+                    .max(Path::compareTo).orElseThrow();
+        }
+    }
+
+    private static void damage(Path file) throws IOException {
+        try (RandomAccessFile data = new RandomAccessFile(file.toFile(), "rw")) {
+            data.seek(data.length() - 1);
+            int last = data.read();
+            data.seek(data.length() - 1);
+            data.write(last ^ 0xFF);
+        }
+    }
+}